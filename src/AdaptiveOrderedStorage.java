@@ -0,0 +1,293 @@
+//-----------------------------------------
+// CLASS: AdaptiveOrderedStorage
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Starts out as an ArrayOrderedStorage and moves its items into a
+//			SkipListOrderedStorage once it grows past PROMOTE_SIZE, moving back
+//			to an array when it shrinks below DEMOTE_SIZE. The gap between the
+//			two sizes keeps a list hovering around one size from switching back
+//			and forth. Small lists stay compact while large ones keep
+//			logarithmic inserts and positional access. Every removal, through
+//			removeAt, removeItem or a cursor, checks whether to move back to
+//			an array.
+//-----------------------------------------
+
+public class AdaptiveOrderedStorage extends OrderedStorage
+{
+	
+	public static final int PROMOTE_SIZE = 128; //switch to a skip list above this size
+	public static final int DEMOTE_SIZE = 32;   //switch back to an array below this size
+	
+	private OrderedStorage storage; //the storage currently holding the items
+	private boolean isPromoted;     //true while the items are in a skip list
+	
+	//------------------------------------------------------
+	// AdaptiveOrderedStorage Constructor
+	//
+	// PURPOSE:	Initializes this object as an empty array
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	AdaptiveOrderedStorage()
+	{
+		storage = new ArrayOrderedStorage();
+		isPromoted = false;
+	}
+	
+	//------------------------------------------------------
+	// insert (implements)
+	//
+	// PURPOSE:	insert item in ascending order, promoting to a skip list if
+	//			the storage has grown too large for an array
+	// PARAMETERS:
+	//		OrderedItem: item to insert
+	// Returns: none
+	//------------------------------------------------------
+	public void insert(OrderedItem item)
+	{
+		storage.insert(item);
+		if ( !isPromoted && storage.getSize() > PROMOTE_SIZE )
+		{
+			storage = copyInto(new SkipListOrderedStorage());
+			isPromoted = true;
+		}//if
+	}
+	
+	//------------------------------------------------------
+	// getAt (implements)
+	//
+	// PURPOSE:	get item at specified index without changing the storage
+	// PARAMETERS:
+	//		int: index of item to get (zero-based indexing)
+	// Returns:
+	//		OrderedItem: the fetched item
+	//------------------------------------------------------
+	public OrderedItem getAt(int index) { return storage.getAt(index); }
+	
+	//------------------------------------------------------
+	// removeAt (implements)
+	//
+	// PURPOSE:	remove item at specified index, demoting to an array if the
+	//			storage has shrunk enough
+	// PARAMETERS:
+	//		int: index at which to remove (zero-based indexing)
+	// Returns:
+	//		OrderedItem: the item that was removed
+	//------------------------------------------------------
+	public OrderedItem removeAt(int index)
+	{
+		OrderedItem removedItem = storage.removeAt(index);
+		if ( isDemoteDue() )
+		    demote();
+		return removedItem;
+	}
+	
+	//------------------------------------------------------
+	// removeItem (overrides)
+	//
+	// PURPOSE:	remove the given item itself, not just one equal to it,
+	//			demoting to an array if the storage has shrunk enough
+	// PARAMETERS:
+	//		OrderedItem: the item to remove
+	// Returns:
+	//		boolean: true if the item was found and removed
+	//------------------------------------------------------
+	public boolean removeItem(OrderedItem item)
+	{
+		boolean isRemoved = storage.removeItem(item);
+		if ( isDemoteDue() )
+		    demote();
+		return isRemoved;
+	}
+	
+	//------------------------------------------------------
+	// getSize (implements)
+	//
+	// PURPOSE:	Returns current number of elements
+	// PARAMETERS: None
+	// Returns: Curent number of elements
+	//------------------------------------------------------
+	public int getSize() { return storage.getSize(); }
+	
+	//------------------------------------------------------
+	// getCursor (implements)
+	//
+	// PURPOSE:	get a forward cursor over the items in ascending order. A removal
+	//			through the cursor that shrinks the storage enough moves it back
+	//			to an array, and the cursor carries on over the array.
+	// PARAMETERS: none
+	// Returns:
+	//		ListCursor: a cursor positioned before the first item
+	//------------------------------------------------------
+	public ListCursor getCursor() { return new AdaptiveCursor(storage.getCursor()); }
+	
+	//------------------------------------------------------
+	// seek (implements)
+	//
+	// PURPOSE:	get a cursor positioned before the first item that is greater
+	//			than or equal to the given one
+	// PARAMETERS:
+	//		OrderedItem: the item to compare against
+	// Returns:
+	//		ListCursor: a cursor over the items from that point on
+	//------------------------------------------------------
+	public ListCursor seek(OrderedItem item) { return new AdaptiveCursor(storage.seek(item)); }
+	
+	//------------------------------------------------------
+	// forEach (overrides)
+	//
+	// PURPOSE:	apply the given visitor to every item in ascending order
+	// PARAMETERS:
+	//		ListItemVisitor: the action to apply to each item
+	// Returns: none
+	//------------------------------------------------------
+	public void forEach(ListItemVisitor visitor) { storage.forEach(visitor); }
+	
+	//------------------------------------------------------
+	// toString
+	//
+	// PURPOSE:	obtain a String representation of this storage
+	// PARAMETERS: none
+	// Returns: 
+	//		String: String representation of this storage
+	//------------------------------------------------------
+	public String toString() { return storage.toString(); }
+	
+	//------------------------------------------------------
+	// snapshot (overrides)
+	//
+	// PURPOSE:	get a separate storage holding the current items, in the same
+	//			representation as this one. The items are copied, so this takes
+	//			O(n); only persistent storages take snapshots in O(1).
+	// PARAMETERS: none
+	// Returns:
+	//		OrderedStorage: the snapshot
+	//------------------------------------------------------
+	public OrderedStorage snapshot()
+	{
+		AdaptiveOrderedStorage copy = new AdaptiveOrderedStorage();
+		if ( isPromoted )
+		    copy.storage = copyInto(new SkipListOrderedStorage());
+		else
+		    copy.storage = copyInto(new ArrayOrderedStorage());
+		copy.isPromoted = isPromoted;
+		return copy;
+	}
+	
+	//------------------------------------------------------
+	// isDemoteDue
+	//
+	// PURPOSE:	checks whether the items should move back to an array
+	//------------------------------------------------------
+	private boolean isDemoteDue() { return isPromoted && storage.getSize() < DEMOTE_SIZE; }
+	
+	//------------------------------------------------------
+	// demote
+	//
+	// PURPOSE:	move the items from the skip list back to an array
+	//------------------------------------------------------
+	private void demote()
+	{
+		storage = copyInto(new ArrayOrderedStorage());
+		isPromoted = false;
+	}
+	
+	//------------------------------------------------------
+	// copyInto
+	//
+	// PURPOSE:	move every item, in order, into the given empty storage
+	// PARAMETERS:
+	//		OrderedStorage: the storage to fill
+	// Returns:
+	//		OrderedStorage: the filled storage
+	//------------------------------------------------------
+	private OrderedStorage copyInto(OrderedStorage newStorage)
+	{
+		//items arrive in ascending order, so each lands after the ones before it
+		ListCursor cursor = storage.getCursor();
+		while ( cursor.hasNext() )
+		    newStorage.insert((OrderedItem)cursor.next());
+		return newStorage;
+	}
+	
+	//-----------------------------------------
+	// CLASS: Inner class AdaptiveCursor
+	//
+	// REMARKS: A forward cursor over the current storage. When a removal
+	//			through it moves the items back to an array, it moves on to a
+	//			cursor over the array at the same position.
+	//-----------------------------------------
+	
+	private class AdaptiveCursor extends ListCursor
+	{
+		
+		private ListCursor cursor; //cursor over the storage currently holding the items
+		private boolean canRemove; //true if next() was called since the last remove()
+		
+		//------------------------------------------------------
+		// AdaptiveCursor Constructor
+		//
+		// PURPOSE:	Initializes this object
+		// PARAMETERS:
+		//		ListCursor: cursor over the current storage
+		//------------------------------------------------------
+		public AdaptiveCursor(ListCursor cursor)
+		{
+			this.cursor = cursor;
+			canRemove = false;
+		}
+		
+		//------------------------------------------------------
+		// hasNext (implements)
+		//
+		// PURPOSE:	checks whether there are items left to visit
+		//------------------------------------------------------
+		public boolean hasNext() { return cursor.hasNext(); }
+		
+		//------------------------------------------------------
+		// next (implements)
+		//
+		// PURPOSE:	returns the next item
+		//------------------------------------------------------
+		public ListItem next()
+		{
+			ListItem item = cursor.next();
+			canRemove = true;
+			return item;
+		}
+		
+		//------------------------------------------------------
+		// remove (implements)
+		//
+		// PURPOSE:	removes the item last returned by next(), moving the items
+		//			back to an array if the storage has shrunk enough
+		//------------------------------------------------------
+		public void remove()
+		{
+			if ( !canRemove )
+			    ( new InvalidCursorStateError("AdaptiveOrderedStorage.AdaptiveCursor.remove()") ).throwError();
+			
+			cursor.remove();
+			canRemove = false;
+			if ( !isDemoteDue() )
+			    return;
+			
+			//count the items still ahead of the cursor (fewer than DEMOTE_SIZE),
+			//then skip past the others in the array
+			int numAhead = 0;
+			while ( cursor.hasNext() )
+			{
+				cursor.next();
+				numAhead++;
+			}//while
+			
+			demote();
+			cursor = storage.getCursor();
+			for ( int skipped = storage.getSize() - numAhead; skipped > 0; skipped-- )
+			    cursor.next();
+		}
+		
+	} //AdaptiveCursor
+
+}//AdaptiveOrderedStorage
@@ -0,0 +1,244 @@
+//-----------------------------------------
+// CLASS: ArrayOrderedStorage
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Keeps the items of an OrderedList in a sorted array. Positions are
+//			found by binary search and inserts/removals shift the array, which
+//			for short lists is both the most compact and the fastest layout.
+//-----------------------------------------
+
+public class ArrayOrderedStorage extends OrderedStorage
+{
+	
+	private static final int INITIAL_CAPACITY = 4; //slots in a new array
+	
+	private OrderedItem[] items; //items in ascending order
+	private int size;            //number of items in use
+	
+	//------------------------------------------------------
+	// ArrayOrderedStorage Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	ArrayOrderedStorage()
+	{
+		items = new OrderedItem[INITIAL_CAPACITY];
+		size = 0;
+	}
+	
+	//------------------------------------------------------
+	// insert (implements)
+	//
+	// PURPOSE:	insert item in ascending order, after any items equal to it
+	// PARAMETERS:
+	//		OrderedItem: item to insert
+	// Returns: none
+	//------------------------------------------------------
+	public void insert(OrderedItem item)
+	{
+		//binary search for the first item greater than the new one
+		int low = 0;
+		int high = size;
+		while ( low < high )
+		{
+			int middle = (low + high) >>> 1;
+			if ( items[middle].compareTo(item) <= 0 )
+			    low = middle + 1;
+			else
+			    high = middle;
+		}//while
+		
+		if ( size == items.length )
+		{
+			OrderedItem[] newItems = new OrderedItem[items.length << 1];
+			System.arraycopy(items, 0, newItems, 0, size);
+			items = newItems;
+		}//if
+		
+		System.arraycopy(items, low, items, low + 1, size - low);
+		items[low] = item;
+		size++;
+	}
+	
+	//------------------------------------------------------
+	// getAt (implements)
+	//
+	// PURPOSE:	get item at specified index without changing the storage
+	// PARAMETERS:
+	//		int: index of item to get (zero-based indexing)
+	// Returns:
+	//		OrderedItem: the fetched item
+	//------------------------------------------------------
+	public OrderedItem getAt(int index)
+	{
+		//bounds check
+		if ( index < 0 || index >= size )
+		    ( new OrderedListOutOfBoundsError("ArrayOrderedStorage") ).throwError();
+		
+		return items[index];
+	}
+	
+	//------------------------------------------------------
+	// removeAt (implements)
+	//
+	// PURPOSE:	remove item at specified index
+	// PARAMETERS:
+	//		int: index at which to remove (zero-based indexing)
+	// Returns:
+	//		OrderedItem: the item that was removed
+	//------------------------------------------------------
+	public OrderedItem removeAt(int index)
+	{
+		//bounds check
+		if ( index < 0 || index >= size )
+		    ( new OrderedListOutOfBoundsError("ArrayOrderedStorage") ).throwError();
+		
+		OrderedItem removedItem = items[index];
+		System.arraycopy(items, index + 1, items, index, size - index - 1);
+		items[--size] = null;
+		return removedItem;
+	}
+	
+	//------------------------------------------------------
+	// getSize (implements)
+	//
+	// PURPOSE:	Returns current number of elements
+	// PARAMETERS: None
+	// Returns: Curent number of elements
+	//------------------------------------------------------
+	public int getSize() { return size; }
+	
+	//------------------------------------------------------
+	// getCursor (implements)
+	//
+	// PURPOSE:	get a forward cursor over the items in ascending order
+	// PARAMETERS: none
+	// Returns:
+	//		ListCursor: a cursor positioned before the first item
+	//------------------------------------------------------
+	public ListCursor getCursor() { return new ArrayCursor(0); }
+	
+	//------------------------------------------------------
+	// seek (implements)
+	//
+	// PURPOSE:	get a cursor positioned before the first item that is greater
+	//			than or equal to the given one, found by binary search
+	// PARAMETERS:
+	//		OrderedItem: the item to compare against
+	// Returns:
+	//		ListCursor: a cursor over the items from that point on
+	//------------------------------------------------------
+	public ListCursor seek(OrderedItem item)
+	{
+		int low = 0;
+		int high = size;
+		while ( low < high )
+		{
+			int middle = (low + high) >>> 1;
+			if ( items[middle].compareTo(item) < 0 )
+			    low = middle + 1;
+			else
+			    high = middle;
+		}//while
+		
+		return new ArrayCursor(low);
+	}
+	
+	//------------------------------------------------------
+	// forEach (overrides)
+	//
+	// PURPOSE:	apply the given visitor to every item in ascending order
+	// PARAMETERS:
+	//		ListItemVisitor: the action to apply to each item
+	// Returns: none
+	//------------------------------------------------------
+	public void forEach(ListItemVisitor visitor)
+	{
+		for ( int ii = 0; ii < size; ii++ )
+		    visitor.visit(items[ii]);
+	}
+	
+	//------------------------------------------------------
+	// toString
+	//
+	// PURPOSE:	obtain a String representation of this storage
+	// PARAMETERS: none
+	// Returns: 
+	//		String: String representation of this storage
+	//------------------------------------------------------
+	public String toString()
+	{
+		String returnString = "List containing " + size + " elements:\n";
+		for ( int ii = 0; ii < size; ii++ )
+		    returnString += "    Element " + ii + ":\t" + items[ii].toString() + "\n";
+		
+		return returnString;
+	}
+	
+	//-----------------------------------------
+	// CLASS: Inner class ArrayCursor
+	//
+	// REMARKS: A forward cursor over the array
+	//-----------------------------------------
+
+	private class ArrayCursor extends ListCursor
+	{
+		
+		private int nextIndex;     //index of the item next() will return
+		private boolean canRemove; //true if next() was called since the last remove()
+		
+		//------------------------------------------------------
+		// ArrayCursor Constructor
+		//
+		// PURPOSE:	Initializes this object
+		// PARAMETERS:
+		//		int: index of the first item to return
+		//------------------------------------------------------
+		public ArrayCursor(int firstIndex)
+		{
+			nextIndex = firstIndex;
+			canRemove = false;
+		}
+		
+		//------------------------------------------------------
+		// hasNext (implements)
+		//
+		// PURPOSE:	checks whether there are items left to visit
+		//------------------------------------------------------
+		public boolean hasNext() { return nextIndex < size; }
+		
+		//------------------------------------------------------
+		// next (implements)
+		//
+		// PURPOSE:	returns the next item of the array
+		//------------------------------------------------------
+		public ListItem next()
+		{
+			if ( nextIndex >= size )
+			    ( new InvalidCursorStateError("ArrayOrderedStorage.ArrayCursor.next()") ).throwError();
+			
+			canRemove = true;
+			return items[nextIndex++];
+		}
+		
+		//------------------------------------------------------
+		// remove (implements)
+		//
+		// PURPOSE:	removes the item last returned by next()
+		//------------------------------------------------------
+		public void remove()
+		{
+			if ( !canRemove )
+			    ( new InvalidCursorStateError("ArrayOrderedStorage.ArrayCursor.remove()") ).throwError();
+			
+			nextIndex--;
+			removeAt(nextIndex);
+			canRemove = false;
+		}
+		
+	} //ArrayCursor
+
+}//ArrayOrderedStorage
@@ -0,0 +1,24 @@
+//-----------------------------------------
+// CLASS: BookingHorizonError
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Error created when the booking horizon of ReservationDatabase is
+//			misused, e.g. moved backwards or set after reservations exist
+//
+//-----------------------------------------
+
+public class BookingHorizonError extends FatalError {
+
+	//------------------------------------------------------
+	// BookingHorizonError Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS:
+	//		String: method name in which error occurred
+	//		String: description of the problem
+	// Returns: None
+	//------------------------------------------------------
+	public BookingHorizonError(String methodName, String problem) {super("In ReservationDatabase." + methodName + ": " + problem);}
+
+} //BookingHorizonError
@@ -0,0 +1,261 @@
+//-----------------------------------------
+// CLASS: BoundedQueue
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Implements a fixed-capacity queue of ListItems on top of a ring
+//			buffer. Besides the non-blocking enqueue/dequeue of SimpleQueue it
+//			offers blocking put/take so that one thread can fill the queue
+//			while another drains it, never holding more than the capacity.
+//			The producer calls close() when it is done, or fail() if it
+//			stopped on an error; take() then returns null once the remaining
+//			items have been drained, and getFailure() tells the two apart.
+//			A consumer that stops early calls abandon() so that a producer
+//			waiting for room gives up instead of waiting forever.
+//-----------------------------------------
+
+public class BoundedQueue extends ListItem {
+	
+	private final ListItem[] items; //the ring buffer
+	private int front;              //index of the next item to dequeue
+	private int size;               //number of items in the queue
+	private boolean isClosed;       //true once the producer has finished
+	private boolean isAbandoned;    //true once the consumer has stopped taking items
+	private Throwable failure;      //what stopped the producer, null if it finished normally
+	
+	//------------------------------------------------------
+	// BoundedQueue Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS:
+	//		int: maximum number of items the queue can hold (at least 1)
+	//------------------------------------------------------
+	public BoundedQueue(int capacity)
+	{
+		items = new ListItem[Math.max(1, capacity)];
+		front = 0;
+		size = 0;
+		isClosed = false;
+		isAbandoned = false;
+		failure = null;
+	}
+	
+	//------------------------------------------------------
+	// getSize
+	//
+	// PURPOSE:	Returns current number of elements
+	// Returns: Curent number of elements
+	//------------------------------------------------------
+	public synchronized int getSize() { return size; }
+	
+	//------------------------------------------------------
+	// getCapacity
+	//
+	// PURPOSE:	Returns the maximum number of elements
+	// Returns: The maximum number of elements
+	//------------------------------------------------------
+	public int getCapacity() { return items.length; }
+	
+	//------------------------------------------------------
+	// isEmpty
+	//
+	// PURPOSE: check if queue is empty
+	// Returns:
+	//		boolean: false if there are items left to dequeue, true otherwise
+	//------------------------------------------------------
+	public synchronized boolean isEmpty() { return size == 0; }
+	
+	//------------------------------------------------------
+	// isFull
+	//
+	// PURPOSE: check if queue is at capacity
+	// Returns:
+	//		boolean: true if no more items can be enqueued right now, false otherwise
+	//------------------------------------------------------
+	public synchronized boolean isFull() { return size == items.length; }
+	
+	//------------------------------------------------------
+	// enqueue
+	//
+	// PURPOSE: add an item to the back of the queue without waiting.
+	//			The queue must not be full.
+	// PARAMETERS: 
+	//		ListItem: the item to enqueue
+	//------------------------------------------------------
+	public synchronized void enqueue( ListItem item )
+	{
+		if ( size == items.length )
+		    ( new BoundedQueueError("enqueue()", "queue is full") ).throwError();
+		
+		addToBack(item);
+	}
+	
+	//------------------------------------------------------
+	// dequeue
+	//
+	// PURPOSE: remove an item from the front of the queue without waiting.
+	//			The queue must not be empty.
+	// Returns:
+	//		ListItem: the item removed
+	//------------------------------------------------------
+	public synchronized ListItem dequeue()
+	{
+		if ( size == 0 )
+		    ( new BoundedQueueError("dequeue()", "queue is empty") ).throwError();
+		
+		return removeFromFront();
+	}
+	
+	//------------------------------------------------------
+	// put
+	//
+	// PURPOSE: add an item to the back of the queue, waiting for room if it is full.
+	//			The item is dropped if the consumer has abandoned the queue.
+	// PARAMETERS: 
+	//		ListItem: the item to enqueue
+	// Returns:
+	//		boolean: true if the item was queued, false if the queue was abandoned
+	//------------------------------------------------------
+	public synchronized boolean put( ListItem item )
+	{
+		if ( isClosed )
+		    ( new BoundedQueueError("put()", "queue has been closed") ).throwError();
+		
+		try
+		{
+			while ( size == items.length && !isAbandoned )
+			    wait();
+		}//try
+		catch ( InterruptedException ex )
+		{
+			Thread.currentThread().interrupt();
+			( new BoundedQueueError("put()", "interrupted while waiting for room") ).throwError();
+		}//catch
+		
+		if ( isAbandoned )
+		    return false;
+		//else
+		addToBack(item);
+		return true;
+	}
+	
+	//------------------------------------------------------
+	// take
+	//
+	// PURPOSE: remove an item from the front of the queue, waiting for one
+	//			if it is empty
+	// Returns:
+	//		ListItem: the item removed, or null if the queue is closed and empty
+	//------------------------------------------------------
+	public synchronized ListItem take()
+	{
+		try
+		{
+			while ( size == 0 && !isClosed )
+			    wait();
+		}//try
+		catch ( InterruptedException ex )
+		{
+			Thread.currentThread().interrupt();
+			( new BoundedQueueError("take()", "interrupted while waiting for an item") ).throwError();
+		}//catch
+		
+		if ( size == 0 )
+		    return null;
+		//else
+		return removeFromFront();
+	}
+	
+	//------------------------------------------------------
+	// close
+	//
+	// PURPOSE: signal that no more items will be put, waking up any waiting takers
+	//------------------------------------------------------
+	public synchronized void close()
+	{
+		isClosed = true;
+		notifyAll();
+	}
+	
+	//------------------------------------------------------
+	// fail
+	//
+	// PURPOSE: signal that no more items will be put because the producer
+	//			stopped on an error, waking up any waiting takers
+	// PARAMETERS: 
+	//		Throwable: what stopped the producer
+	//------------------------------------------------------
+	public synchronized void fail( Throwable cause )
+	{
+		failure = cause;
+		close();
+	}
+	
+	//------------------------------------------------------
+	// getFailure
+	//
+	// PURPOSE: returns what stopped the producer
+	// Returns:
+	//		Throwable: the error given to fail(), or null if there was none
+	//------------------------------------------------------
+	public synchronized Throwable getFailure() { return failure; }
+	
+	//------------------------------------------------------
+	// abandon
+	//
+	// PURPOSE: signal that no more items will be taken. Queued items are
+	//			dropped and putters waiting for room are woken up to give up.
+	//------------------------------------------------------
+	public synchronized void abandon()
+	{
+		isAbandoned = true;
+		while ( size > 0 )
+		    removeFromFront();
+		notifyAll();
+	}
+	
+	//------------------------------------------------------
+	// addToBack
+	//
+	// PURPOSE: store an item in the slot after the last one, waking up takers.
+	//			The caller holds the lock and has checked there is room.
+	// PARAMETERS: 
+	//		ListItem: the item to enqueue
+	//------------------------------------------------------
+	private void addToBack( ListItem item )
+	{
+		int back = front + size;
+		if ( back >= items.length )
+		    back -= items.length;
+		items[back] = item;
+		size++;
+		
+		//takers only wait while the queue is empty
+		if ( size == 1 )
+		    notifyAll();
+	}
+	
+	//------------------------------------------------------
+	// removeFromFront
+	//
+	// PURPOSE: take the item in the front slot, waking up putters.
+	//			The caller holds the lock and has checked there is an item.
+	// Returns:
+	//		ListItem: the item removed
+	//------------------------------------------------------
+	private ListItem removeFromFront()
+	{
+		ListItem item = items[front];
+		items[front] = null; //let the item be collected once processed
+		front++;
+		if ( front == items.length )
+		    front = 0;
+		size--;
+		
+		//putters only wait while the queue is full
+		if ( size == items.length - 1 )
+		    notifyAll();
+		return item;
+	}
+
+}//BoundedQueue
@@ -0,0 +1,24 @@
+//-----------------------------------------
+// CLASS: BoundedQueueError
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Error created when a BoundedQueue is misused, e.g. a non-blocking
+//			enqueue on a full queue or a dequeue on an empty one
+//
+//-----------------------------------------
+
+public class BoundedQueueError extends FatalError {
+
+	//------------------------------------------------------
+	// BoundedQueueError Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS:
+	//		String: method name in which error occurred
+	//		String: description of the problem
+	// Returns: None
+	//------------------------------------------------------
+	public BoundedQueueError(String methodName, String problem) {super("In BoundedQueue." + methodName + ": " + problem);}
+
+} //BoundedQueueError
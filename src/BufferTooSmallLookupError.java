@@ -0,0 +1,27 @@
+//-----------------------------------------
+// CLASS: BufferTooSmallLookupError
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: error thrown when a lookup is given an array too short to
+//			hold its results
+//
+//-----------------------------------------
+
+public class BufferTooSmallLookupError extends LookupError{
+
+	//------------------------------------------------------
+	// BufferTooSmallLookupError Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS: 
+	//		String: string representation of method in which error occurred
+	//		int: the length needed
+	//		int: the length given
+	// Returns: None
+	//------------------------------------------------------
+	public BufferTooSmallLookupError(String method, int neededLength, int givenLength) {
+		super(method, "Array of length " + givenLength + " is too short, " + neededLength + " needed");			
+	}
+	
+}//BufferTooSmallLookupError
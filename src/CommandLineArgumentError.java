@@ -0,0 +1,23 @@
+//-----------------------------------------
+// CLASS: CommandLineArgumentError
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Error created when the program is started with command line
+//			arguments it cannot use
+//
+//-----------------------------------------
+
+public class CommandLineArgumentError extends FatalError {
+
+	//------------------------------------------------------
+	// CommandLineArgumentError Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS:
+	//		String: description of the problem
+	// Returns: None
+	//------------------------------------------------------
+	public CommandLineArgumentError(String problem) {super("In MainProgram: " + problem + "\nUsage: MainProgram [horizon days [current day]]");}
+
+} //CommandLineArgumentError
@@ -11,19 +11,18 @@ public class Customer extends BaseEntity {
 	
 	//Customer-specific data members - other data handled by superclass
 	private RoomType roomPreference; //this customer's preferred room type (double, king or suite)
-	private static int nextCustomerIdNumber = 1; //customer ID numbers - incremented each time a Customer is created
 	
 	//------------------------------------------------------
 	// Customer Constructor
 	//
 	// PURPOSE:	Initializes this object
 	// PARAMETERS:
+	//		int: customer ID, as given by CustomerDatabase.internCustomerName
 	//		String: customer name	
 	// Returns: None
 	//------------------------------------------------------
-	Customer(String customerName) {
-		super(nextCustomerIdNumber, customerName);
-		nextCustomerIdNumber++;
+	Customer(int customerId, String customerName) {
+		super(customerId, customerName);
 		roomPreference = RoomType.UNSPECIFIED;
 	}
 	
@@ -83,7 +82,7 @@ public class Customer extends BaseEntity {
 		
 		//get the reservation list for this customer and add this info
 		//to the return string
-		OrderedList reservationList = ReservationDatabase.getReservationsByCustomerName(getName());		
+		OrderedList reservationList = ReservationDatabase.getReservationsByCustomerId(getId());		
 		if (reservationList.getSize() == 0)
 		    customerInfo += "Reservations: none\n";
 		else
@@ -91,13 +90,14 @@ public class Customer extends BaseEntity {
 			customerInfo += "Reservations:\n";
 			
 			//add reservation info to the string
-			for (int iReservation = 0; iReservation < reservationList.getSize(); iReservation++)
+			ListCursor cursor = reservationList.getCursor();
+			while (cursor.hasNext())
 			{
-				OrderedItem item = reservationList.getAt(iReservation);
+				ListItem item = cursor.next();
 				assert item instanceof Reservation;
 				Reservation reservation = (Reservation)item;
-				customerInfo += "    Start: " + reservation.getStartDate() + "  Duration: " + reservation.getDuration() + "  Cost: $" + reservation.getTotalCost() + "\n";
-			}//for iReservation
+				customerInfo += "    ID: " + reservation.getId() + "  Start: " + reservation.getStartDate() + "  Duration: " + reservation.getDuration() + "  Cost: $" + reservation.getTotalCost() + "\n";
+			}//while
 			
 		}//else
 		
@@ -9,8 +9,15 @@
 
 public class CustomerDatabase {
 	
-	//the list of Customers
-	private static SearchableOrderedList customerList = new SearchableOrderedList();
+	//the list of Customers, ordered by name for printing. The list is persistent
+	//so that a snapshot of it can be taken in constant time.
+	private static SearchableOrderedList customerList = new SearchableOrderedList(new PersistentOrderedStorage());
+	
+	//every customer name seen, each with the integer ID its Customer is given
+	private static CustomerNameDictionary customerNames = new CustomerNameDictionary();
+	
+	//the same Customers keyed by their integer ID for lookups
+	private static IntKeyMap customersById = new IntKeyMap();
 	
 	//------------------------------------------------------
 	// addCustomer
@@ -24,26 +31,99 @@ public class CustomerDatabase {
 		//check if this customer already exists in the list.
 		//we don't allow duplicate customers.
 		if (doesCustomerExist(customer)){(new DuplicateCustomerDatabaseError(customer.getName())).throwError();}
-		else customerList.insert(customer);
+		else{
+			customerList.insert(customer);
+			customersById.put(customer.getId(), customer);
+		}//else
 	}
 	
 	//------------------------------------------------------
-	// getCustomerByName
+	// internCustomerName
 	//
-	// PURPOSE:	gets a Customer stored in this database by its name
+	// PURPOSE:	get the customer ID of the name written as two parts of a
+	//			line, joined by ", ", assigning one if the name is new
 	// PARAMETERS: 
-	//		String: the name of the customer to get
+	//		String: the line
+	//		int: start of the first part
+	//		int: end of the first part (exclusive)
+	//		int: start of the second part
+	//		int: end of the second part (exclusive)
+	// Returns:
+	//		int: the customer ID
+	//------------------------------------------------------
+	public static int internCustomerName(String line, int firstStart, int firstEnd, int secondStart, int secondEnd){
+		return customerNames.intern(line, firstStart, firstEnd, secondStart, secondEnd);
+	}
+	
+	//------------------------------------------------------
+	// internCustomerName
+	//
+	// PURPOSE:	get the customer ID of a name, assigning one if the name is new
+	// PARAMETERS: 
+	//		String: the customer name
+	// Returns:
+	//		int: the customer ID
+	//------------------------------------------------------
+	public static int internCustomerName(String customerName){return customerNames.intern(customerName);}
+	
+	//------------------------------------------------------
+	// getCustomerId
+	//
+	// PURPOSE:	get the customer ID of the name written as two parts of a
+	//			line, joined by ", ", without assigning one
+	// PARAMETERS: 
+	//		String: the line
+	//		int: start of the first part
+	//		int: end of the first part (exclusive)
+	//		int: start of the second part
+	//		int: end of the second part (exclusive)
+	// Returns:
+	//		int: the customer ID, or CustomerNameDictionary.NO_ID if the name
+	//			 was never seen
+	//------------------------------------------------------
+	public static int getCustomerId(String line, int firstStart, int firstEnd, int secondStart, int secondEnd){
+		return customerNames.getId(line, firstStart, firstEnd, secondStart, secondEnd);
+	}
+	
+	//------------------------------------------------------
+	// getCustomerName
+	//
+	// PURPOSE:	gets the name with a customer ID
+	// PARAMETERS: 
+	//		int: the customer ID
+	// Returns:
+	//		String: the name, or null if no name has this ID
+	//------------------------------------------------------
+	public static String getCustomerName(int customerId){return customerNames.getName(customerId);}
+	
+	//------------------------------------------------------
+	// getCustomerById
+	//
+	// PURPOSE:	gets a Customer stored in this database by its ID
+	// PARAMETERS: 
+	//		int: the ID of the customer to get
 	// Returns:
 	//		Customer: the requested Customer object or null if not found
 	//------------------------------------------------------
-	public static Customer getCustomerByName(String customerName){
-		SearchableOrderedItem item = customerList.getByKey(customerName);
+	public static Customer getCustomerById(int customerId){
+		ListItem item = customersById.get(customerId);
 		if (item == null) return null;
 		//else
 		assert item instanceof Customer;
 		return (Customer)item;
 	}
 	
+	//------------------------------------------------------
+	// getCustomerByName
+	//
+	// PURPOSE:	gets a Customer stored in this database by its name
+	// PARAMETERS: 
+	//		String: the name of the customer to get
+	// Returns:
+	//		Customer: the requested Customer object or null if not found
+	//------------------------------------------------------
+	public static Customer getCustomerByName(String customerName){return getCustomerById(customerNames.getId(customerName));}
+	
 	//------------------------------------------------------
 	// doesCustomerExist
 	//
@@ -53,36 +133,35 @@ public class CustomerDatabase {
 	// Returns: 
 	//		boolean: true if the customer alreacy exists, false otherwise
 	//------------------------------------------------------
-	public static boolean doesCustomerExist(Customer customer){return customerList.hasItem(customer);}
+	public static boolean doesCustomerExist(Customer customer){return customersById.containsKey(customer.getId());}
 	
 	//------------------------------------------------------
 	// doesCustomerExist
 	//
 	// PURPOSE:	check to see if customer already exists in database
 	// PARAMETERS: 
-	//		String: the customer to check for by name
+	//		int: the customer to check for by ID
 	// Returns: 
 	//		boolean: true if the customer alreacy exists, false otherwise
 	//------------------------------------------------------
-	public static boolean doesCustomerExist(String name){return customerList.hasKey(name);}
+	public static boolean doesCustomerExist(int customerId){return customersById.containsKey(customerId);}
 
 	//------------------------------------------------------
 	// setCustomerRoomPreference
 	//
 	// PURPOSE:	set a customer's room preference
 	// PARAMETERS: 
-	//		String: the customer's name
+	//		int: the customer's ID
 	//		RoomType: the RoomType to set the preference to
 	// Returns: none
 	//------------------------------------------------------
-	public static void setCustomerRoomPreference(String name, RoomType roomType){
+	public static void setCustomerRoomPreference(int customerId, RoomType roomType){
 		//first check if this customer exists in the database
-		if (!doesCustomerExist(name)) (new CustomerDoesNotExistDatabaseError(name)).throwError();
+		Customer customer = getCustomerById(customerId);
+		if (customer == null) (new CustomerDoesNotExistDatabaseError(getCustomerName(customerId))).throwError();
 		else{
 			//if customer exists then change their room preference
-			SearchableOrderedItem item = customerList.getByKey(name);
-			assert item instanceof Customer;
-			((Customer)item).setPreferredRoomType(roomType);
+			customer.setPreferredRoomType(roomType);
 		}//else
 	}
 	
@@ -91,26 +170,36 @@ public class CustomerDatabase {
 	//
 	// PURPOSE:	get a customer's room preference
 	// PARAMETERS: 
-	//		String: the customer's name
+	//		int: the customer's ID
 	// Returns:
-	//		RoomType: the customer's preferred room type or null if customer name invalid
+	//		RoomType: the customer's preferred room type or null if customer ID invalid
 	//------------------------------------------------------
-	public static RoomType getCustomerRoomPreference(String name){
+	public static RoomType getCustomerRoomPreference(int customerId){
 		//The return value
 		RoomType prefRoomType = null;
 		
 		//first check if this customer exists in the database
-		if (!doesCustomerExist(name)) (new CustomerDoesNotExistDatabaseError(name)).throwError();
+		Customer customer = getCustomerById(customerId);
+		if (customer == null) (new CustomerDoesNotExistDatabaseError(getCustomerName(customerId))).throwError();
 		else{
 			//if customer exists then get their room preference
-			SearchableOrderedItem item = customerList.getByKey(name);
-			assert item instanceof Customer;
-			prefRoomType = ((Customer)item).getPreferredRoomType();
+			prefRoomType = customer.getPreferredRoomType();
 		}//else
 		
 		return prefRoomType;
 	}
 		
+	//------------------------------------------------------
+	// getSnapshot
+	//
+	// PURPOSE:	get a frozen copy of the customer list that later changes
+	//			to this database do not affect
+	// PARAMETERS: none
+	// Returns:
+	//		SearchableOrderedList: the customers at the time of the call
+	//------------------------------------------------------
+	public static SearchableOrderedList getSnapshot() { return customerList.getSnapshot(); }
+	
 	//------------------------------------------------------
 	// printDatabase
 	//
@@ -122,10 +211,11 @@ public class CustomerDatabase {
 		//setup header
 		String databaseInfo = "Customer Data:\n**************\n\n";
 		
-		//loop over the customer list and build a String of the required information
-		for (int ii = 0; ii < customerList.getSize(); ii++){
-			databaseInfo += customerList.getAt(ii).toString() + "\n";			
-		}//for ii
+		//loop over a snapshot of the customer list and build a String of the required information
+		ListCursor cursor = getSnapshot().getCursor();
+		while (cursor.hasNext()){
+			databaseInfo += cursor.next().toString() + "\n";			
+		}//while
 		
 		System.out.println(databaseInfo);
 	}//printDatabase
@@ -0,0 +1,281 @@
+//-----------------------------------------
+// CLASS: CustomerNameDictionary
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Assigns each distinct customer name a small integer ID, from 1 in
+//			order of first appearance, and keeps one String per name. Names
+//			are written "Last, First"; the two parts can be looked up in
+//			place in a line of input, so a name already known costs neither
+//			a new String nor a String comparison.
+//
+//			Only the thread processing requests uses the dictionary, and a
+//			name is only added when its customer is created, so it needs no
+//			locking.
+//-----------------------------------------
+
+public class CustomerNameDictionary extends ListItem
+{
+	
+	public static final int NO_ID = 0; //ID returned for a name never interned
+	
+	private static final int INITIAL_CAPACITY = 64; //slots in a new dictionary (power of two)
+	private static final String SEPARATOR = ", ";   //between the two parts of a name
+	
+	private int[] slots;       //open-addressing table of IDs, NO_ID if empty
+	private String[] namesById; //the name of each ID (slot 0 unused)
+	private int[] hashesById;  //the hash of each name, by ID
+	private int size;          //number of names
+	
+	//------------------------------------------------------
+	// CustomerNameDictionary Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	CustomerNameDictionary()
+	{
+		slots = new int[INITIAL_CAPACITY];
+		namesById = new String[INITIAL_CAPACITY];
+		hashesById = new int[INITIAL_CAPACITY];
+		size = 0;
+	}
+	
+	//------------------------------------------------------
+	// getSize
+	//
+	// PURPOSE:	Returns current number of names
+	// PARAMETERS: None
+	// Returns: Curent number of names
+	//------------------------------------------------------
+	public int getSize() { return size; }
+	
+	//------------------------------------------------------
+	// intern
+	//
+	// PURPOSE:	get the ID of the name made of two runs of characters of a
+	//			line, joined by ", ", adding the name if it is new
+	// PARAMETERS:
+	//		String: the line
+	//		int: start of the first part
+	//		int: end of the first part (exclusive)
+	//		int: start of the second part
+	//		int: end of the second part (exclusive)
+	// Returns:
+	//		int: the ID of the name
+	//------------------------------------------------------
+	public int intern(String line, int firstStart, int firstEnd, int secondStart, int secondEnd)
+    {
+		int hash = hash(line, firstStart, firstEnd, secondStart, secondEnd);
+		int slot = findSlot(hash, line, firstStart, firstEnd, secondStart, secondEnd);
+		if (slots[slot] != NO_ID)
+		    return slots[slot];
+		
+		String name = line.substring(firstStart, firstEnd) + SEPARATOR + line.substring(secondStart, secondEnd);
+		return add(slot, hash, name);
+	}
+	
+	//------------------------------------------------------
+	// intern
+	//
+	// PURPOSE:	get the ID of a whole name, adding it if it is new
+	// PARAMETERS:
+	//		String: the name
+	// Returns:
+	//		int: the ID of the name
+	//------------------------------------------------------
+	public int intern(String name)
+    {
+		int hash = name.hashCode();
+		int slot = findSlot(hash, name, 0, name.length(), -1, -1);
+		if (slots[slot] != NO_ID)
+		    return slots[slot];
+		return add(slot, hash, name);
+	}
+	
+	//------------------------------------------------------
+	// getId
+	//
+	// PURPOSE:	get the ID of a name without adding it
+	// PARAMETERS:
+	//		String: the name
+	// Returns:
+	//		int: the ID of the name, or NO_ID if it was never interned
+	//------------------------------------------------------
+	public int getId(String name)
+    {
+		return slots[findSlot(name.hashCode(), name, 0, name.length(), -1, -1)];
+	}
+	
+	//------------------------------------------------------
+	// getId
+	//
+	// PURPOSE:	get the ID of the name made of two runs of characters of a
+	//			line, joined by ", ", without adding it
+	// PARAMETERS:
+	//		String: the line
+	//		int: start of the first part
+	//		int: end of the first part (exclusive)
+	//		int: start of the second part
+	//		int: end of the second part (exclusive)
+	// Returns:
+	//		int: the ID of the name, or NO_ID if it was never interned
+	//------------------------------------------------------
+	public int getId(String line, int firstStart, int firstEnd, int secondStart, int secondEnd)
+    {
+		int hash = hash(line, firstStart, firstEnd, secondStart, secondEnd);
+		return slots[findSlot(hash, line, firstStart, firstEnd, secondStart, secondEnd)];
+	}
+	
+	//------------------------------------------------------
+	// getName
+	//
+	// PURPOSE:	get the name with an ID
+	// PARAMETERS:
+	//		int: the ID
+	// Returns:
+	//		String: the name, or null if no name has the ID
+	//------------------------------------------------------
+	public String getName(int id)
+    {
+		if (id <= NO_ID || id > size)
+		    return null;
+		return namesById[id];
+	}
+	
+	//------------------------------------------------------
+	// findSlot
+	//
+	// PURPOSE:	find the slot holding a name given in one or two parts (a
+	//			second part is joined on with ", "), or the empty slot where
+	//			it belongs
+	// PARAMETERS:
+	//		int: hash of the whole name
+	//		String: text holding the parts
+	//		int: start of the first part
+	//		int: end of the first part (exclusive)
+	//		int: start of the second part, or -1 if the first part is the
+	//			 whole name
+	//		int: end of the second part (exclusive)
+	// Returns:
+	//		int: the slot
+	//------------------------------------------------------
+	private int findSlot(int hash, String text, int firstStart, int firstEnd, int secondStart, int secondEnd)
+    {
+		int mask = slots.length - 1;
+		int slot = spread(hash) & mask;
+		while (slots[slot] != NO_ID)
+        {
+			int id = slots[slot];
+			if (hashesById[id] == hash && isMatch(namesById[id], text, firstStart, firstEnd, secondStart, secondEnd))
+			    return slot;
+			slot = (slot + 1) & mask;
+		}//while
+		return slot;
+	}
+	
+	//------------------------------------------------------
+	// add
+	//
+	// PURPOSE:	give a new name the next ID and put it in an empty slot
+	// PARAMETERS:
+	//		int: the empty slot found for the name
+	//		int: hash of the name
+	//		String: the name
+	// Returns:
+	//		int: the new ID
+	//------------------------------------------------------
+	private int add(int slot, int hash, String name)
+    {
+		size++;
+		int id = size;
+		if (id >= namesById.length)
+        {
+			String[] newNames = new String[namesById.length << 1];
+			int[] newHashes = new int[namesById.length << 1];
+			System.arraycopy(namesById, 0, newNames, 0, namesById.length);
+			System.arraycopy(hashesById, 0, newHashes, 0, hashesById.length);
+			namesById = newNames;
+			hashesById = newHashes;
+		}//if
+		namesById[id] = name;
+		hashesById[id] = hash;
+		slots[slot] = id;
+		
+		//keep at least a quarter of the slots empty so probe runs stay short
+		if (size > slots.length - (slots.length >> 2))
+		    resize(slots.length << 1);
+		return id;
+	}
+	
+	//------------------------------------------------------
+	// resize
+	//
+	// PURPOSE:	re-insert every ID into a larger table
+	// PARAMETERS:
+	//		int: the new number of slots (power of two)
+	// Returns: none
+	//------------------------------------------------------
+	private void resize(int capacity)
+    {
+		slots = new int[capacity];
+		int mask = capacity - 1;
+		for (int id = 1; id <= size; id++)
+        {
+			int slot = spread(hashesById[id]) & mask;
+			while (slots[slot] != NO_ID)
+			    slot = (slot + 1) & mask;
+			slots[slot] = id;
+		}//for id
+	}
+	
+	//------------------------------------------------------
+	// isMatch
+	//
+	// PURPOSE:	checks a name against one given in parts, as for findSlot
+	//------------------------------------------------------
+	private static boolean isMatch(String name, String text, int firstStart, int firstEnd, int secondStart, int secondEnd)
+    {
+		int firstLength = firstEnd - firstStart;
+		if (secondStart < 0)
+		    return name.length() == firstLength && name.regionMatches(0, text, firstStart, firstLength);
+		
+		int secondLength = secondEnd - secondStart;
+		return name.length() == firstLength + SEPARATOR.length() + secondLength
+		    && name.regionMatches(0, text, firstStart, firstLength)
+		    && name.startsWith(SEPARATOR, firstLength)
+		    && name.regionMatches(firstLength + SEPARATOR.length(), text, secondStart, secondLength);
+	}
+	
+	//------------------------------------------------------
+	// hash
+	//
+	// PURPOSE:	computes String.hashCode() of the two parts joined by ", "
+	//			without joining them
+	//------------------------------------------------------
+	private static int hash(String line, int firstStart, int firstEnd, int secondStart, int secondEnd)
+    {
+		int hash = 0;
+		for (int index = firstStart; index < firstEnd; index++)
+		    hash = 31 * hash + line.charAt(index);
+		for (int index = 0; index < SEPARATOR.length(); index++)
+		    hash = 31 * hash + SEPARATOR.charAt(index);
+		for (int index = secondStart; index < secondEnd; index++)
+		    hash = 31 * hash + line.charAt(index);
+		return hash;
+	}
+	
+	//------------------------------------------------------
+	// spread
+	//
+	// PURPOSE:	mixes the high bits of a hash code into the low bits used
+	//			to pick a slot
+	//------------------------------------------------------
+	private static int spread(int hashCode)
+	{
+		hashCode *= 0x9E3779B9;
+		return hashCode ^ (hashCode >>> 16);
+	}
+	
+}//CustomerNameDictionary
@@ -0,0 +1,166 @@
+//-----------------------------------------
+// CLASS: DailyManifestIndex
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: The guest manifest of one hotel: for any day, the reservations
+//			arriving, departing and in-house. Arrivals are kept in a bucket
+//			per start date and departures in a bucket per check-out date,
+//			the day after the last night (start date + duration). Who is
+//			in-house on a day is a stabbing query on an interval tree of
+//			the hotel's reservations. Each answer costs in proportion to its
+//			size.
+//-----------------------------------------
+
+public class DailyManifestIndex extends ListItem
+{
+	
+	private IntKeyMap arrivalsByDay;        //reservations by start date, lists ordered by start date
+	private IntKeyMap departuresByDay;      //reservations by check-out date, lists ordered by start date
+	private ReservationIntervalTree stays;  //every reservation, for in-house queries
+	
+	//------------------------------------------------------
+	// DailyManifestIndex Constructor
+	//
+	// PURPOSE:	Initializes this object with no reservations
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	DailyManifestIndex()
+	{
+		arrivalsByDay = new IntKeyMap();
+		departuresByDay = new IntKeyMap();
+		stays = new ReservationIntervalTree();
+	}
+	
+	//------------------------------------------------------
+	// insert
+	//
+	// PURPOSE:	add a reservation to the manifest
+	// PARAMETERS:
+	//		Reservation: the reservation to add
+	// Returns: none
+	//------------------------------------------------------
+	public void insert(Reservation reservation)
+    {
+		getDayList(arrivalsByDay, reservation.getStartDate()).insert(reservation);
+		getDayList(departuresByDay, departureDateOf(reservation)).insert(reservation);
+		stays.insert(reservation);
+	}
+	
+	//------------------------------------------------------
+	// remove
+	//
+	// PURPOSE:	remove the given reservation (compared by reference)
+	// PARAMETERS:
+	//		Reservation: the reservation to remove
+	// Returns:
+	//		boolean: true if the reservation was held
+	//------------------------------------------------------
+	public boolean remove(Reservation reservation)
+    {
+		if (!stays.remove(reservation))
+		    return false;
+		
+		removeFromDay(arrivalsByDay, reservation.getStartDate(), reservation);
+		removeFromDay(departuresByDay, departureDateOf(reservation), reservation);
+		return true;
+	}
+	
+	//------------------------------------------------------
+	// addArrivalsTo
+	//
+	// PURPOSE:	insert into a list the reservations starting on a day
+	// PARAMETERS:
+	//		OrderedList: the list to add to
+	//		int: the day
+	// Returns: none
+	//------------------------------------------------------
+	public void addArrivalsTo(OrderedList list, int day) { addDayTo(list, arrivalsByDay, day); }
+	
+	//------------------------------------------------------
+	// addDeparturesTo
+	//
+	// PURPOSE:	insert into a list the reservations checking out on a day
+	// PARAMETERS:
+	//		OrderedList: the list to add to
+	//		int: the day
+	// Returns: none
+	//------------------------------------------------------
+	public void addDeparturesTo(OrderedList list, int day) { addDayTo(list, departuresByDay, day); }
+	
+	//------------------------------------------------------
+	// addInHouseTo
+	//
+	// PURPOSE:	insert into a list the reservations staying on a day, in the
+	//			sense of DatabaseLookup.isDateOverlap with a one day range
+	// PARAMETERS:
+	//		OrderedList: the list to add to
+	//		int: the day
+	// Returns: none
+	//------------------------------------------------------
+	public void addInHouseTo(OrderedList list, int day) { stays.addOverlappingTo(list, day, 1); }
+	
+	//------------------------------------------------------
+	// departureDateOf
+	//
+	// PURPOSE:	get the check-out date of a reservation, the day after its
+	//			last night
+	//------------------------------------------------------
+	private static int departureDateOf(Reservation reservation)
+    {
+		return reservation.getStartDate() + reservation.getDuration();
+	}
+	
+	//------------------------------------------------------
+	// getDayList
+	//
+	// PURPOSE:	get the list of a day in a day map, creating it if needed
+	//------------------------------------------------------
+	private static OrderedList getDayList(IntKeyMap listsByDay, int day)
+    {
+		OrderedList dayList = (OrderedList)listsByDay.get(day);
+		if (dayList == null)
+        {
+			dayList = new OrderedList();
+			listsByDay.put(day, dayList);
+		}//if
+		return dayList;
+	}
+	
+	//------------------------------------------------------
+	// removeFromDay
+	//
+	// PURPOSE:	remove a reservation (compared by reference) from the list of
+	//			a day in a day map, dropping the list once it is empty
+	//------------------------------------------------------
+	private static void removeFromDay(IntKeyMap listsByDay, int day, Reservation reservation)
+    {
+		OrderedList dayList = (OrderedList)listsByDay.get(day);
+		if (dayList == null)
+		    return;
+		
+		//reservations starting the same day compare equal, so remove this very one
+		dayList.removeItem(reservation);
+		
+		if (dayList.getSize() == 0)
+		    listsByDay.remove(day);
+	}
+	
+	//------------------------------------------------------
+	// addDayTo
+	//
+	// PURPOSE:	insert into a list every reservation of a day in a day map
+	//------------------------------------------------------
+	private static void addDayTo(OrderedList list, IntKeyMap listsByDay, int day)
+    {
+		OrderedList dayList = (OrderedList)listsByDay.get(day);
+		if (dayList == null)
+		    return;
+		
+		ListCursor cursor = dayList.getCursor();
+		while (cursor.hasNext())
+		    list.insert((OrderedItem)cursor.next());
+	}
+	
+}//DailyManifestIndex
@@ -6,10 +6,15 @@
 // REMARKS: A class that groups static methods for looking-up and filtering
 //			through information contained in the databases
 //
+//			The room bitsets the lookups work on are kept per thread and
+//			reused, so a lookup only allocates what it returns.
+//
 //-----------------------------------------
 
 public class DatabaseLookup {
 	
+	private static final ThreadLocal<LookupScratch> scratchByThread = ThreadLocal.withInitial(LookupScratch::new); //reusable lookup state of each thread
+	
 	//------------------------------------------------------
 	// getAvailableRooms
 	//
@@ -29,34 +34,87 @@ public class DatabaseLookup {
 		if (!HotelDatabase.doesHotelExist(hotelId))
 			(new InvalidHotelIdLookupError("getAvailableRooms(int,int,int)", hotelId)).throwError();
 		
-		//loop over the hotel rooms, checking if each is available
-		int numRooms = HotelDatabase.getNumRoomsInHotel(hotelId);
-		for (int iRoomNumber = 1; iRoomNumber <= numRooms; iRoomNumber++){ //note one-based indexing for room number
-			//get current reservations for this room
-			OrderedList reservationList = ReservationDatabase.getReservationsByRoomNumber(hotelId, iRoomNumber);
-			
-			//iterate over the reservations to determine whether this room is available
-			boolean isRoomAvailable = true;
-			int index = 0;
-			while (index < reservationList.getSize() && isRoomAvailable){
-				OrderedItem item = reservationList.getAt(index);
-				assert item instanceof Reservation;
-				Reservation reservation = (Reservation)item;
-				
-				//if given dates and reservation dates overlap then this room is not available
-				if (isDateOverlap(startDate, duration, reservation.getStartDate(), reservation.getDuration())) isRoomAvailable = false;
-				
-				index++;
+		//walk the set bits of the free room set; bit n is room n, so
+		//rooms come out in ascending room number
+		long[] freeRooms = getScratchFreeRooms(hotelId, startDate, duration);
+		int numWords = (HotelDatabase.getHotelById(hotelId).getNumRooms() >>> 6) + 1;
+		for (int word = 0; word < numWords; word++){
+			long bits = freeRooms[word];
+			while (bits != 0){
+				int roomNumber = (word << 6) + Long.numberOfTrailingZeros(bits);
+				availableRooms.insert(HotelDatabase.getRoomByHotel(hotelId, roomNumber));
+				bits &= bits - 1; //clear the lowest set bit
 			}//while
-			
-			//add this room to the list if it is available
-			if (isRoomAvailable) availableRooms.insert(HotelDatabase.getRoomByHotel(hotelId, iRoomNumber));
-			
-		}//for iRoomNumber
+		}//for word
 		
 		return availableRooms;		
 	}
 
+	//------------------------------------------------------
+	// getAvailableRoomSet
+	//
+	// PURPOSE:	fill a bitset with the rooms available in a hotel for the
+	//			given date range, without allocating
+	// PARAMETERS: 
+	//		int: the hotel ID
+	//		int: start date
+	//		int: duration
+	//		long[]: the bitset to fill, bit n of word n / 64 for room n. It must
+	//				have a word for every 64 rooms of the hotel counting room 0;
+	//				words past those are left as they are
+	// Returns: none
+	//------------------------------------------------------
+	public static void getAvailableRoomSet(int hotelId, int startDate, int duration, long[] freeRooms){
+		//ensure the hotel exists and the bitset can hold its rooms
+		if (!HotelDatabase.doesHotelExist(hotelId))
+			(new InvalidHotelIdLookupError("getAvailableRoomSet(int,int,int,long[])", hotelId)).throwError();
+		int numWords = (HotelDatabase.getHotelById(hotelId).getNumRooms() >>> 6) + 1;
+		if (freeRooms.length < numWords)
+			(new BufferTooSmallLookupError("getAvailableRoomSet(int,int,int,long[])", numWords, freeRooms.length)).throwError();
+		
+		ReservationDatabase.getFreeRooms(hotelId, startDate, duration, freeRooms);
+	}
+	
+	//------------------------------------------------------
+	// getAvailableRoomNumbers
+	//
+	// PURPOSE:	fill an array with the numbers of the rooms available in a
+	//			hotel for the given date range, in ascending order, without
+	//			allocating
+	// PARAMETERS: 
+	//		int: the hotel ID
+	//		int: start date
+	//		int: duration
+	//		int[]: the array to fill; it must hold every available room, which
+	//			   the number of rooms in the hotel always does
+	// Returns: 
+	//		int: the number of available rooms, written to the front of the array
+	//------------------------------------------------------
+	public static int getAvailableRoomNumbers(int hotelId, int startDate, int duration, int[] roomNumbers){
+		//ensure the hotel exists
+		if (!HotelDatabase.doesHotelExist(hotelId))
+			(new InvalidHotelIdLookupError("getAvailableRoomNumbers(int,int,int,int[])", hotelId)).throwError();
+		
+		long[] freeRooms = getScratchFreeRooms(hotelId, startDate, duration);
+		int numWords = (HotelDatabase.getHotelById(hotelId).getNumRooms() >>> 6) + 1;
+		int numAvailable = 0;
+		for (int word = 0; word < numWords; word++)
+			numAvailable += Long.bitCount(freeRooms[word]);
+		if (roomNumbers.length < numAvailable)
+			(new BufferTooSmallLookupError("getAvailableRoomNumbers(int,int,int,int[])", numAvailable, roomNumbers.length)).throwError();
+		
+		int numWritten = 0;
+		for (int word = 0; word < numWords; word++){
+			long bits = freeRooms[word];
+			while (bits != 0){
+				roomNumbers[numWritten++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1; //clear the lowest set bit
+			}//while
+		}//for word
+		
+		return numAvailable;
+	}
+	
 	//------------------------------------------------------
 	// getAvailableRoomsByType
 	//
@@ -73,62 +131,208 @@ public class DatabaseLookup {
 	public static OrderedList getAvailableRoomsByType(int hotelId, int startDate, int duration, RoomType roomType){
 		OrderedList availableRooms = getAvailableRooms(hotelId, startDate, duration); //the list of rooms to return
 		
-		//iterate over the available rooms in the list, removing the ones that do not 
+		//walk over the available rooms in the list, removing the ones that do not 
 		//match the specified type
-		int index = 0;
-		while (index < availableRooms.getSize()){
-			OrderedItem item = availableRooms.getAt(index);
+		ListCursor cursor = availableRooms.getCursor();
+		while (cursor.hasNext()){
+			ListItem item = cursor.next();
 			assert item instanceof Room;
 			Room room = (Room)item;
 			
-			if (room.getRoomType() != roomType) availableRooms.removeAt(index);
-			else index++;			
+			if (room.getRoomType() != roomType) cursor.remove();
 		}//while
 		
 		return availableRooms;
 	}
 	
 	//------------------------------------------------------
-	// getContiguousAvailableRooms
+	// getCheapestAvailableRooms
+	//
+	// PURPOSE:	get the cheapest rooms available in a hotel for the given
+	//			date range, by walking the hotel's rooms in rate order and
+	//			taking the free ones. Rooms of equal rate come highest room
+	//			number first.
+	// PARAMETERS: 
+	//		int: the hotel ID
+	//		int: start date
+	//		int: duration
+	//		RoomType: the type of room, or null for any type
+	//		int: the most rooms wanted
+	// Returns: 
+	//		SimpleLinkedList: up to that many available rooms, cheapest first
+	//------------------------------------------------------
+	public static SimpleLinkedList getCheapestAvailableRooms(int hotelId, int startDate, int duration, RoomType roomType, int maxRooms){
+		SimpleLinkedList cheapestRooms = new SimpleLinkedList(); //the list of rooms to return
+		
+		//ensure the hotel exists
+		if (!HotelDatabase.doesHotelExist(hotelId))
+			(new InvalidHotelIdLookupError("getCheapestAvailableRooms(int,int,int,RoomType,int)", hotelId)).throwError();
+		
+		Hotel hotel = HotelDatabase.getHotelById(hotelId);
+		int[] roomsByRate = hotel.getRoomsByRate(roomType);
+		long[] freeRooms = getScratchFreeRooms(hotelId, startDate, duration);
+		for (int rank = 0; rank < roomsByRate.length && cheapestRooms.getSize() < maxRooms; rank++){
+			int roomNumber = roomsByRate[rank];
+			if ((freeRooms[roomNumber >>> 6] & (1L << roomNumber)) != 0)
+				cheapestRooms.insertAtEnd(hotel.getRoomByNumber(roomNumber));
+		}//for rank
+		
+		return cheapestRooms;
+	}
+	
+	//------------------------------------------------------
+	// getCheapestContiguousRooms
 	//
-	// PURPOSE:	get a list of lists of available rooms that are contiguous in the
-	//			specified hotel for the givne date range. The number of contiguous
-	//			rooms is also a parameter.
+	// PURPOSE:	get the cheapest block of consecutively numbered rooms available
+	//			in a hotel for the given date range, of the largest size up to
+	//			the given one that any block has. Of blocks that cost the same,
+	//			the one with the highest room numbers is taken.
+	//			The free rooms are walked once in room number order, keeping the
+	//			length of the run of free rooms that ends at each; the block
+	//			ending there is as long as that run allows, and its cost comes
+	//			from the hotel's running totals of rates.
 	// PARAMETERS: 
 	//		int: the hotel ID
 	//		int: start date
 	//		int: duration
-	//		int: number of contiguous rooms
+	//		int: the most rooms wanted
 	// Returns: 
-	//		SimpleLinkedList: list of lists of contiguous available rooms in the given date range
+	//		SearchableOrderedList: the rooms of the block, empty if no room is available
 	//------------------------------------------------------
-	public static SimpleLinkedList getContiguousAvailableRooms(int hotelId, int startDate, int duration, int numContiguous){
-		SimpleLinkedList contiguousRoomsList = new SimpleLinkedList(); //the list of lists of contiguous rooms to return
+	public static SearchableOrderedList getCheapestContiguousRooms(int hotelId, int startDate, int duration, int maxRooms){
+		SearchableOrderedList blockRooms = new SearchableOrderedList(); //the list of rooms to return
 		
-		//start by getting the available rooms at this hotel for the given date range.
-		OrderedList availableRooms = getAvailableRooms(hotelId, startDate, duration);
+		//ensure the hotel exists
+		if (!HotelDatabase.doesHotelExist(hotelId))
+			(new InvalidHotelIdLookupError("getCheapestContiguousRooms(int,int,int,int)", hotelId)).throwError();
 		
-		//Since the rooms are ordered by room number in this list, we can compare rooms "numContiguous"
-		//items away from each other. so iterate over the available room list and compare rooms as such
-		int offset = numContiguous - 1; //the desired offset between compared rooms
-		for (int iRoom = 0; iRoom+offset < availableRooms.getSize(); iRoom++){
-			//get a room and antoher "offset" items away in the list
-			OrderedItem roomA = availableRooms.getAt(iRoom);
-			OrderedItem roomB = availableRooms.getAt(iRoom+offset);
+		Hotel hotel = HotelDatabase.getHotelById(hotelId);
+		long[] freeRooms = getScratchFreeRooms(hotelId, startDate, duration);
+		int runLength = 0;      //free rooms in a row ending at the current room
+		int blockSize = 0;      //size of the best block so far
+		int blockLastRoom = 0;  //last room number of the best block so far
+		long blockCost = 0;     //cost of the best block so far
+		for (int roomNumber = 1; roomNumber <= hotel.getNumRooms(); roomNumber++){
+			if ((freeRooms[roomNumber >>> 6] & (1L << roomNumber)) == 0){
+				runLength = 0;
+				continue;
+			}//if
 			
-			//check if the room numbers are contiguous. If so, add them to the 
-			//list to be returned
-			if (roomB.compareTo(roomA) == offset){
-				//create the list of contiguous rooms to put into the retured list.
-				SearchableOrderedList contiguousRooms = new SearchableOrderedList(); //the list of contiguous rooms
-				for (int jRoom = iRoom; jRoom < iRoom+numContiguous; jRoom++)
-					contiguousRooms.insert(availableRooms.getAt(jRoom));
-				
-				contiguousRoomsList.insert(contiguousRooms);				
-			}//if	
-		}//for iRoom
-		
-		return contiguousRoomsList;		
+			runLength++;
+			int size = Math.min(runLength, maxRooms);
+			long cost = hotel.getRateSum(roomNumber - size + 1, roomNumber);
+			if (size > blockSize || (size == blockSize && cost <= blockCost)){
+				blockSize = size;
+				blockLastRoom = roomNumber;
+				blockCost = cost;
+			}//if
+		}//for roomNumber
+		
+		for (int roomNumber = blockLastRoom - blockSize + 1; roomNumber <= blockLastRoom; roomNumber++)
+			blockRooms.insert(hotel.getRoomByNumber(roomNumber));
+		
+		return blockRooms;
+	}
+	
+	//------------------------------------------------------
+	// getFirstFreeDate
+	//
+	// PURPOSE:	find the first start date, on or after the given one, from
+	//			which a room is available for the given duration
+	// PARAMETERS: 
+	//		int: the hotel ID
+	//		int: room number
+	//		int: earliest start date
+	//		int: duration (at least 1)
+	// Returns: 
+	//		long: the start date, or RoomOccupancySet.NO_DATE if there is none
+	//------------------------------------------------------
+	public static long getFirstFreeDate(int hotelId, int roomNumber, int fromDate, int duration){
+		//ensure the hotel and room exist
+		if (!HotelDatabase.doesHotelExist(hotelId))
+			(new InvalidHotelIdLookupError("getFirstFreeDate(int,int,int,int)", hotelId)).throwError();
+		if (HotelDatabase.getRoomByHotel(hotelId, roomNumber) == null)
+			(new InvalidRoomNumberLookupError("getFirstFreeDate(int,int,int,int)", hotelId, roomNumber)).throwError();
+		
+		return ReservationDatabase.getFirstFreeDate(hotelId, roomNumber, fromDate, duration);
+	}
+	
+	//------------------------------------------------------
+	// getNumOccupiedRooms
+	//
+	// PURPOSE:	count the rooms of a hotel that are booked at some point of
+	//			the given date range, for occupancy reports
+	// PARAMETERS: 
+	//		int: the hotel ID
+	//		int: start date
+	//		int: duration
+	// Returns: 
+	//		int: the number of rooms booked
+	//------------------------------------------------------
+	public static int getNumOccupiedRooms(int hotelId, int startDate, int duration){
+		//ensure the hotel exists
+		if (!HotelDatabase.doesHotelExist(hotelId))
+			(new InvalidHotelIdLookupError("getNumOccupiedRooms(int,int,int)", hotelId)).throwError();
+		
+		//count in this thread's reusable bitset rather than a new one
+		LookupScratch scratch = scratchByThread.get();
+		long[] occupiedRooms = scratch.getRoomWords((HotelDatabase.getHotelById(hotelId).getNumRooms() >>> 6) + 1);
+		return ReservationDatabase.getNumOccupiedRooms(hotelId, startDate, duration, occupiedRooms);
+	}
+	
+	//------------------------------------------------------
+	// getArrivals
+	//
+	// PURPOSE:	get the reservations arriving at a hotel on a day
+	// PARAMETERS: 
+	//		int: the hotel ID
+	//		int: the day
+	// Returns: 
+	//		OrderedList: the reservations starting that day
+	//------------------------------------------------------
+	public static OrderedList getArrivals(int hotelId, int day){
+		//ensure the hotel exists
+		if (!HotelDatabase.doesHotelExist(hotelId))
+			(new InvalidHotelIdLookupError("getArrivals(int,int)", hotelId)).throwError();
+		
+		return ReservationDatabase.getArrivals(hotelId, day);
+	}
+	
+	//------------------------------------------------------
+	// getDepartures
+	//
+	// PURPOSE:	get the reservations departing from a hotel on a day, i.e.
+	//			checking out the morning after their last night
+	// PARAMETERS: 
+	//		int: the hotel ID
+	//		int: the day
+	// Returns: 
+	//		OrderedList: the reservations checking out that day, by start date
+	//------------------------------------------------------
+	public static OrderedList getDepartures(int hotelId, int day){
+		//ensure the hotel exists
+		if (!HotelDatabase.doesHotelExist(hotelId))
+			(new InvalidHotelIdLookupError("getDepartures(int,int)", hotelId)).throwError();
+		
+		return ReservationDatabase.getDepartures(hotelId, day);
+	}
+	
+	//------------------------------------------------------
+	// getInHouse
+	//
+	// PURPOSE:	get the reservations staying at a hotel on a day
+	// PARAMETERS: 
+	//		int: the hotel ID
+	//		int: the day
+	// Returns: 
+	//		OrderedList: the reservations covering that day, by start date
+	//------------------------------------------------------
+	public static OrderedList getInHouse(int hotelId, int day){
+		//ensure the hotel exists
+		if (!HotelDatabase.doesHotelExist(hotelId))
+			(new InvalidHotelIdLookupError("getInHouse(int,int)", hotelId)).throwError();
+		
+		return ReservationDatabase.getInHouse(hotelId, day);
 	}
 	
 	//------------------------------------------------------
@@ -143,10 +347,11 @@ public class DatabaseLookup {
 	// Returns: 
 	//		boolean: true if dates overlap, false otherwise
 	//------------------------------------------------------
-	private static boolean isDateOverlap(int startDate1, int duration1, int startDate2, int duration2){
+	public static boolean isDateOverlap(int startDate1, int duration1, int startDate2, int duration2){
 		boolean isOverlap = false;		
-		int endDate1 = startDate1 + duration1 - 1;
-		int endDate2 = startDate2 + duration2 - 1;
+		//the end dates are worked out in long so that a late start cannot wrap around
+		long endDate1 = (long)startDate1 + duration1 - 1;
+		long endDate2 = (long)startDate2 + duration2 - 1;
 		
 		isOverlap = isOverlap || (startDate1 <= startDate2 && startDate2 <= endDate1);
 		isOverlap = isOverlap || (startDate1 <= endDate2 && endDate2 <= endDate1);
@@ -155,5 +360,50 @@ public class DatabaseLookup {
 		
 		return isOverlap;
 	}
+	
+	//------------------------------------------------------
+	// getScratchFreeRooms
+	//
+	// PURPOSE:	get the available rooms of a hotel for the given date range
+	//			in this thread's reusable bitset. The bitset is overwritten
+	//			by the next lookup of the thread, so it must not be kept.
+	//			The hotel is assumed to exist.
+	// PARAMETERS: 
+	//		int: the hotel ID
+	//		int: start date
+	//		int: duration
+	// Returns: 
+	//		long[]: bitset of free rooms, bit n of word n / 64 for room n;
+	//				words past the hotel's last room are left over
+	//------------------------------------------------------
+	private static long[] getScratchFreeRooms(int hotelId, int startDate, int duration){
+		LookupScratch scratch = scratchByThread.get();
+		long[] freeRooms = scratch.getRoomWords((HotelDatabase.getHotelById(hotelId).getNumRooms() >>> 6) + 1);
+		ReservationDatabase.getFreeRooms(hotelId, startDate, duration, freeRooms);
+		return freeRooms;
+	}
+	
+	//-----------------------------------------
+	// CLASS: LookupScratch
+	//
+	// REMARKS: The room bitset one thread's lookups reuse. It grows to fit
+	//			the largest hotel looked up and is never shrunk.
+	//-----------------------------------------
+	private static class LookupScratch
+	{
+		private long[] roomWords = new long[1]; //the bitset
+		
+		//------------------------------------------------------
+		// getRoomWords
+		//
+		// PURPOSE:	get the bitset, grown to at least the given number of longs
+		//------------------------------------------------------
+		public long[] getRoomWords(int numWords)
+		{
+			if (roomWords.length < numWords)
+				roomWords = new long[numWords];
+			return roomWords;
+		}
+	}//LookupScratch
 
 }//DatabaseLookup
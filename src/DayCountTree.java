@@ -0,0 +1,122 @@
+//-----------------------------------------
+// CLASS: DayCountTree
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: A segment tree of counts, one per calendar slot, answering "what
+//			is the largest count over a range of slots" in O(log n). Leaves
+//			sit at the second half of a single array and each inner node
+//			holds the larger of its two children. Slots past the ones in use
+//			hold 0.
+//-----------------------------------------
+
+public class DayCountTree extends ListItem
+{
+	
+	private int numLeaves; //number of leaves (a power of two)
+	private int[] nodes;   //node n has children 2n and 2n + 1; leaves start at numLeaves
+	
+	//------------------------------------------------------
+	// DayCountTree Constructor
+	//
+	// PURPOSE:	Initializes this object with every count 0
+	// PARAMETERS:
+	//		int: number of slots needed
+	// Returns: None
+	//------------------------------------------------------
+	DayCountTree(int numSlots)
+	{
+		numLeaves = 1;
+		while (numLeaves < numSlots)
+		    numLeaves <<= 1;
+		nodes = new int[numLeaves << 1];
+	}
+	
+	//------------------------------------------------------
+	// getNumSlots
+	//
+	// PURPOSE:	returns the number of slots the tree can hold
+	//------------------------------------------------------
+	public int getNumSlots() { return numLeaves; }
+	
+	//------------------------------------------------------
+	// get
+	//
+	// PURPOSE:	returns the count of a slot
+	// PARAMETERS:
+	//		int: the slot
+	// Returns:
+	//		int: its count
+	//------------------------------------------------------
+	public int get(int slot) { return nodes[numLeaves + slot]; }
+	
+	//------------------------------------------------------
+	// set
+	//
+	// PURPOSE:	set the count of a slot and update the maxima above it
+	// PARAMETERS:
+	//		int: the slot
+	//		int: its new count
+	// Returns: none
+	//------------------------------------------------------
+	public void set(int slot, int count)
+    {
+		int node = numLeaves + slot;
+		nodes[node] = count;
+		for (node >>>= 1; node > 0; node >>>= 1)
+		    nodes[node] = Math.max(nodes[node << 1], nodes[(node << 1) + 1]);
+	}
+	
+	//------------------------------------------------------
+	// getMax
+	//
+	// PURPOSE:	get the largest count over a range of slots
+	// PARAMETERS:
+	//		int: first slot
+	//		int: last slot (not before the first)
+	// Returns:
+	//		int: the largest count
+	//------------------------------------------------------
+	public int getMax(int firstSlot, int lastSlot)
+    {
+		//climb from both ends, taking in nodes that lie wholly inside the range
+		int max = 0;
+		int low = numLeaves + firstSlot;
+		int high = numLeaves + lastSlot + 1;
+		while (low < high)
+        {
+			if ((low & 1) == 1)
+			    max = Math.max(max, nodes[low++]);
+			if ((high & 1) == 1)
+			    max = Math.max(max, nodes[--high]);
+			low >>>= 1;
+			high >>>= 1;
+		}//while
+		return max;
+	}
+	
+	//------------------------------------------------------
+	// grow
+	//
+	// PURPOSE:	make room for at least the given number of slots, keeping
+	//			the counts held
+	// PARAMETERS:
+	//		int: number of slots needed
+	// Returns: none
+	//------------------------------------------------------
+	public void grow(int numSlots)
+    {
+		if (numSlots <= numLeaves)
+		    return;
+		
+		int oldLeaves = numLeaves;
+		int[] oldNodes = nodes;
+		while (numLeaves < numSlots)
+		    numLeaves <<= 1;
+		nodes = new int[numLeaves << 1];
+		System.arraycopy(oldNodes, oldLeaves, nodes, numLeaves, oldLeaves);
+		for (int node = numLeaves - 1; node > 0; node--)
+		    nodes[node] = Math.max(nodes[node << 1], nodes[(node << 1) + 1]);
+	}
+	
+}//DayCountTree
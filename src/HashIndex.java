@@ -0,0 +1,238 @@
+//-----------------------------------------
+// CLASS: HashIndex
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: A chained hash table mapping the String keys of SearchableOrderedItems
+//			to the items themselves. Several items may share a key; they are kept
+//			in insertion order so that lookups can return the same item a
+//			front-to-back search of the owning ordered list would find.
+//
+//-----------------------------------------
+
+public class HashIndex extends ListItem
+{
+	
+	private static final int INITIAL_CAPACITY = 16; //number of buckets in a new index (power of two)
+	
+	private Entry[] buckets; //bucket heads, each a chain of entries
+	private int size;        //number of items indexed
+	
+	//------------------------------------------------------
+	// HashIndex Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	HashIndex()
+	{
+		buckets = new Entry[INITIAL_CAPACITY];
+		size = 0;
+	}
+	
+	//------------------------------------------------------
+	// getSize
+	//
+	// PURPOSE:	Returns current number of indexed items
+	// PARAMETERS: None
+	// Returns: Curent number of indexed items
+	//------------------------------------------------------
+	public int getSize() { return size; }
+	
+	//------------------------------------------------------
+	// put
+	//
+	// PURPOSE:	index the given item under its key
+	// PARAMETERS:
+	//		SearchableOrderedItem: the item to index
+	// Returns: none
+	//------------------------------------------------------
+	public void put( SearchableOrderedItem item )
+	{
+		//grow before the chains get long (load factor 0.75)
+		if ( size + 1 > buckets.length - (buckets.length >> 2) )
+		    resize( buckets.length << 1 );
+		
+		String key = item.getKey();
+		int hash = spread( key.hashCode() );
+		Entry entry = new Entry( key, hash, item );
+		
+		//append to the end of the chain to keep same-key items in insertion order
+		int bucket = hash & (buckets.length - 1);
+		if ( buckets[bucket] == null )
+		    buckets[bucket] = entry;
+		else
+		{
+			Entry last = buckets[bucket];
+			while ( last.next != null )
+			    last = last.next;
+			last.next = entry;
+		}//else
+		
+		size++;
+	}
+	
+	//------------------------------------------------------
+	// remove
+	//
+	// PURPOSE:	remove the given item (matched by identity) from the index
+	// PARAMETERS:
+	//		SearchableOrderedItem: the item to remove
+	// Returns:
+	//		boolean: true if the item was indexed, false otherwise
+	//------------------------------------------------------
+	public boolean remove( SearchableOrderedItem item )
+	{
+		int bucket = spread( item.getKey().hashCode() ) & (buckets.length - 1);
+		
+		Entry previous = null;
+		Entry entry = buckets[bucket];
+		while ( entry != null && entry.item != item )
+		{
+			previous = entry;
+			entry = entry.next;
+		}//while
+		
+		if ( entry == null )
+		    return false;
+		
+		if ( previous == null )
+		    buckets[bucket] = entry.next;
+		else
+		    previous.next = entry.next;
+		
+		size--;
+		return true;
+	}
+	
+	//------------------------------------------------------
+	// get
+	//
+	// PURPOSE:	get the item with the given key that comes first in list order,
+	//			i.e. the lowest one by compareTo, earliest inserted among equals
+	// PARAMETERS:
+	//		String: the search key
+	// Returns:
+	//		SearchableOrderedItem: the item found or null if no item has this key
+	//------------------------------------------------------
+	public SearchableOrderedItem get( String key )
+	{
+		int hash = spread( key.hashCode() );
+		
+		SearchableOrderedItem foundItem = null;
+		Entry entry = buckets[hash & (buckets.length - 1)];
+		while ( entry != null )
+		{
+			if ( entry.hash == hash && key.equals( entry.key ) )
+			{
+				if ( foundItem == null || entry.item.compareTo( foundItem ) < 0 )
+				    foundItem = entry.item;
+			}//if
+			entry = entry.next;
+		}//while
+		
+		return foundItem;
+	}
+	
+	//------------------------------------------------------
+	// containsKey
+	//
+	// PURPOSE:	checks whether any item is indexed under the given key
+	// PARAMETERS:
+	//		String: the search key
+	// Returns:
+	//		boolean: true if an item has this key, false otherwise
+	//------------------------------------------------------
+	public boolean containsKey( String key )
+	{
+		int hash = spread( key.hashCode() );
+		
+		Entry entry = buckets[hash & (buckets.length - 1)];
+		while ( entry != null )
+		{
+			if ( entry.hash == hash && key.equals( entry.key ) )
+			    return true;
+			entry = entry.next;
+		}//while
+		
+		return false;
+	}
+	
+	//------------------------------------------------------
+	// resize
+	//
+	// PURPOSE:	rehash every entry into a new bucket array, keeping chain order
+	// PARAMETERS:
+	//		int: the new number of buckets (power of two)
+	// Returns: none
+	//------------------------------------------------------
+	private void resize( int capacity )
+	{
+		Entry[] oldBuckets = buckets;
+		Entry[] newTails = new Entry[capacity];
+		buckets = new Entry[capacity];
+		
+		for ( int ii = 0; ii < oldBuckets.length; ii++ )
+		{
+			Entry entry = oldBuckets[ii];
+			while ( entry != null )
+			{
+				Entry next = entry.next;
+				int bucket = entry.hash & (capacity - 1);
+				entry.next = null;
+				if ( newTails[bucket] == null )
+				    buckets[bucket] = entry;
+				else
+				    newTails[bucket].next = entry;
+				newTails[bucket] = entry;
+				entry = next;
+			}//while
+		}//for ii
+	}
+	
+	//------------------------------------------------------
+	// spread
+	//
+	// PURPOSE:	mixes the high bits of a hash code into the low bits used
+	//			to pick a bucket
+	// PARAMETERS:
+	//		int: the raw hash code
+	// Returns:
+	//		int: the spread hash code
+	//------------------------------------------------------
+	private static int spread( int hashCode ) { return hashCode ^ (hashCode >>> 16); }
+	
+	//-----------------------------------------
+	// CLASS: Inner class Entry
+	//
+	// REMARKS: A single key to item mapping in a bucket chain
+	//-----------------------------------------
+
+	private static class Entry
+	{
+		private final String key;
+		private final int hash;
+		private final SearchableOrderedItem item;
+		private Entry next;
+		
+		//------------------------------------------------------
+		// Entry Constructor
+		//
+		// PURPOSE:	Initializes this object
+		// PARAMETERS:
+		//		String: the item's key
+		//		int: the spread hash of the key
+		//		SearchableOrderedItem: the indexed item
+		//------------------------------------------------------
+		public Entry( String key, int hash, SearchableOrderedItem item )
+		{
+			this.key = key;
+			this.hash = hash;
+			this.item = item;
+			next = null;
+		}
+		
+	} //Entry
+
+} //HashIndex
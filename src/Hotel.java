@@ -10,8 +10,13 @@
 public class Hotel extends BaseEntity
 {
 	
-	//hold a list of rooms. Other hotel data is handled by superclass
-	private SearchableOrderedList roomList;
+	//room inventory as parallel arrays indexed by room number (slot 0 unused).
+	//Other hotel data is handled by superclass
+	private int numRooms;  //rooms are numbered 1..numRooms
+	private int[] rates;   //cost per night of each room
+	private byte[] types;  //RoomType code of each room
+	private Room[] rooms;  //Room views, created on first lookup
+	private RoomRateIndex rateIndex; //room numbers sorted by rate, built once as rates never change
 	
 	//------------------------------------------------------
 	// Hotel Constructor
@@ -20,12 +25,18 @@ public class Hotel extends BaseEntity
 	// PARAMETERS: 
 	//		int: hotel ID
 	//		String: hotel name
-	//		SearchableOrderedList: list of rooms
+	//		int: number of rooms
+	//		int[]: rate of each room, indexed by room number
+	//		byte[]: RoomType code of each room, indexed by room number
 	//------------------------------------------------------
-	Hotel(int id, String name, SearchableOrderedList roomList)
+	Hotel(int id, String name, int numRooms, int[] rates, byte[] types)
     {
 		super(id, name);
-		this.roomList = roomList;
+		this.numRooms = numRooms;
+		this.rates = rates;
+		this.types = types;
+		rooms = new Room[numRooms + 1];
+		rateIndex = new RoomRateIndex(numRooms, rates, types);
 	}
 
 	//------------------------------------------------------
@@ -45,12 +56,61 @@ public class Hotel extends BaseEntity
 	// Returns:
 	//		int: the number of rooms in this hotel
 	//------------------------------------------------------
-	public int getNumRooms() { return roomList.getSize(); }
+	public int getNumRooms() { return numRooms; }
+	
+	//------------------------------------------------------
+	// getRateOfRoom
+	//
+	// PURPOSE:	Returns the rate of the room with the given number
+	// PARAMETERS:
+	//		int: room number (1..getNumRooms())
+	// Returns:
+	//		int: the cost per night of that room
+	//------------------------------------------------------
+	public int getRateOfRoom(int roomNumber) { return rates[roomNumber]; }
+	
+	//------------------------------------------------------
+	// getTypeOfRoom
+	//
+	// PURPOSE:	Returns the type of the room with the given number
+	// PARAMETERS:
+	//		int: room number (1..getNumRooms())
+	// Returns:
+	//		RoomType: the type of that room
+	//------------------------------------------------------
+	public RoomType getTypeOfRoom(int roomNumber) { return RoomType.fromCode(types[roomNumber]); }
+	
+	//------------------------------------------------------
+	// getRoomsByRate
+	//
+	// PURPOSE:	Returns room numbers of this hotel ordered by ascending rate,
+	//			rooms of equal rate by descending room number. The array is
+	//			shared and must not be changed.
+	// PARAMETERS:
+	//		RoomType: type of the rooms, or null for every room
+	// Returns:
+	//		int[]: the room numbers
+	//------------------------------------------------------
+	public int[] getRoomsByRate(RoomType roomType) { return rateIndex.getRoomsByRate(roomType); }
+	
+	//------------------------------------------------------
+	// getRateSum
+	//
+	// PURPOSE:	Returns the total cost per night of a run of consecutively
+	//			numbered rooms
+	// PARAMETERS:
+	//		int: first room number of the run
+	//		int: last room number of the run
+	// Returns:
+	//		long: the sum of their rates
+	//------------------------------------------------------
+	public long getRateSum(int firstRoomNumber, int lastRoomNumber) { return rateIndex.getRateSum(firstRoomNumber, lastRoomNumber); }
 	
 	//------------------------------------------------------
 	// getRoomByNumber
 	//
-	// PURPOSE:	Returns the room with the given number
+	// PURPOSE:	Returns the room with the given number. The same Room
+	//			object is returned for every lookup of a room.
 	// PARAMETERS:
 	//		int: room number
 	// Returns:
@@ -58,12 +118,16 @@ public class Hotel extends BaseEntity
 	//------------------------------------------------------
 	public Room getRoomByNumber(int roomNumber)
     {
-		SearchableOrderedItem room = roomList.getByKey(""+roomNumber);
-		if (room == null)
+		if (roomNumber < 1 || roomNumber > numRooms)
 		    return null;
 		//else
-		assert room instanceof Room;
-		return (Room)room;
+		Room room = rooms[roomNumber];
+		if (room == null)
+        {
+			room = new Room(this, roomNumber);
+			rooms[roomNumber] = room;
+		}//if
+		return room;
 	}
 	
 	//------------------------------------------------------
@@ -79,10 +143,10 @@ public class Hotel extends BaseEntity
 		//add hotel header info to the return String
 		String hotelInfo = "" + getId() + ": " + getName() + "\n";
 		
-		//loop over each room and add their info to the String
-		for (int ii = 0; ii < roomList.getSize(); ii++){
-			hotelInfo += roomList.getAt(ii).toString();			
-		}//for ii
+		//walk over each room and add their info to the String
+		for (int roomNumber = 1; roomNumber <= numRooms; roomNumber++){
+			hotelInfo += getRoomByNumber(roomNumber).toString();			
+		}//for
 		
 		return hotelInfo;
 	}//toString
@@ -9,8 +9,12 @@
 
 public class HotelDatabase {
 	
-	//the list of Hotels
-	private static SearchableOrderedList hotelList = new SearchableOrderedList();
+	//the list of Hotels, ordered by ID for printing. The list is persistent so
+	//that a snapshot of it can be taken in constant time.
+	private static SearchableOrderedList hotelList = new SearchableOrderedList(new PersistentOrderedStorage());
+	
+	//the same Hotels keyed by their integer ID for lookups
+	private static IntKeyMap hotelsById = new IntKeyMap();
 	
 	//------------------------------------------------------
 	// addHotel 
@@ -20,7 +24,11 @@ public class HotelDatabase {
 	//		Hotel: the hotel to be added to the database
 	// Returns: none
 	//------------------------------------------------------
-	public static void addHotel(Hotel hotel){hotelList.insert(hotel);}
+	public static void addHotel(Hotel hotel)
+    {
+		hotelList.insert(hotel);
+		hotelsById.put(hotel.getId(), hotel);
+	}
 	
 	//------------------------------------------------------
 	// getHotelById 
@@ -33,7 +41,7 @@ public class HotelDatabase {
 	//------------------------------------------------------
 	public static Hotel getHotelById(int hotelId)
     {
-		SearchableOrderedItem item = hotelList.getByKey(""+hotelId);
+		ListItem item = hotelsById.get(hotelId);
 		if (item == null)
 		    return null;
 		//else
@@ -51,7 +59,7 @@ public class HotelDatabase {
 	//		int: the number of rooms in the hotel or -1 if hotel is invalid
 	//------------------------------------------------------
 	public static int getNumRoomsInHotel(int hotelId) {
-		SearchableOrderedItem item = hotelList.getByKey(""+hotelId);
+		ListItem item = hotelsById.get(hotelId);
 		if (item == null)
 		    return -1;
 		//else
@@ -71,13 +79,10 @@ public class HotelDatabase {
 	//------------------------------------------------------
 	public static Room getRoomByHotel(int hotelId, int roomNumber)
     {
-		if (!doesHotelExist(hotelId))
+		Hotel hotel = getHotelById(hotelId);
+		if (hotel == null)
 		    return null;
 		
-		SearchableOrderedItem item  = hotelList.getByKey(""+hotelId);
-		assert item instanceof Hotel;
-		Hotel hotel = (Hotel)item;
-		
 		return hotel.getRoomByNumber(roomNumber);
 	}
 
@@ -90,7 +95,18 @@ public class HotelDatabase {
 	// Returns: 
 	//		boolean: true if the hotel exists, false otherwise
 	//------------------------------------------------------
-	public static boolean doesHotelExist(int hotelId) { return hotelList.hasKey(""+hotelId); }
+	public static boolean doesHotelExist(int hotelId) { return hotelsById.containsKey(hotelId); }
+	
+	//------------------------------------------------------
+	// getSnapshot
+	//
+	// PURPOSE:	get a frozen copy of the hotel list that later changes
+	//			to this database do not affect
+	// PARAMETERS: none
+	// Returns:
+	//		SearchableOrderedList: the hotels at the time of the call
+	//------------------------------------------------------
+	public static SearchableOrderedList getSnapshot() { return hotelList.getSnapshot(); }
 	
 	//------------------------------------------------------
 	// printDatabase
@@ -104,10 +120,11 @@ public class HotelDatabase {
 		//setup header
 		String databaseInfo = "Hotel Data:\n***********\n\n";
 		
-		//loop over the hotel list and build a String of the required information		
-		for (int ii = 0; ii < hotelList.getSize(); ii++){
-			databaseInfo += hotelList.getAt(ii).toString() + "\n";			
-		}//for ii
+		//loop over a snapshot of the hotel list and build a String of the required information		
+		ListCursor cursor = getSnapshot().getCursor();
+		while (cursor.hasNext()){
+			databaseInfo += cursor.next().toString() + "\n";			
+		}//while
 		
 		System.out.println(databaseInfo);
 	}//printDatabase
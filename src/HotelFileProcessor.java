@@ -15,6 +15,9 @@ public class HotelFileProcessor
 	//the default hotel file name
 	public static final String DEFAULT_HOTEL_FILENAME = "./Hotels.txt";
 	
+	//starting length of a hotel's room arrays; they double as needed
+	private static final int INITIAL_ROOM_CAPACITY = 16;
+	
 	//------------------------------------------------------
 	// processHotelFile 
 	//
@@ -48,15 +51,29 @@ public class HotelFileProcessor
 				
 				//next we have the list of rooms so read lines until 
 				//a blank line is reached or the end of file. Each 
-				//room is added to the room list for this hotel.
-				SearchableOrderedList roomList = new SearchableOrderedList();
+				//room's rate and type go into the arrays for this hotel,
+				//at the index of the room number.
+				int[] rates = new int[INITIAL_ROOM_CAPACITY];
+				byte[] types = new byte[INITIAL_ROOM_CAPACITY];
 				int roomNumber = 1; //keeps track of the room numbers
 				line = reader.readLine();
 				while (line != null && line.trim().length() != 0)
                 {
-					//parse the room info and add the room to the list
+					//make room for this room number if the arrays are full
+					if (roomNumber == rates.length)
+                    {
+						int[] newRates = new int[rates.length << 1];
+						byte[] newTypes = new byte[types.length << 1];
+						System.arraycopy(rates, 0, newRates, 0, roomNumber);
+						System.arraycopy(types, 0, newTypes, 0, roomNumber);
+						rates = newRates;
+						types = newTypes;
+					}//if
+					
+					//parse the room info and store it
 					String[] roomInfo = line.split("\\s"); //split the room info into an array
-					roomList.insert(new Room(hotelId, roomNumber, roomInfo[0], Integer.parseInt(roomInfo[1])));
+					types[roomNumber] = RoomType.convertStringToRoomType(roomInfo[0]).getCode();
+					rates[roomNumber] = Integer.parseInt(roomInfo[1]);
 					
 					//increment the room number
 					roomNumber++;
@@ -67,7 +84,7 @@ public class HotelFileProcessor
 				
 				//we are now done reading the rooms so we have all the info we need 
 				//to create and add the hotel to the database
-				HotelDatabase.addHotel(new Hotel(hotelId, hotelName, roomList));
+				HotelDatabase.addHotel(new Hotel(hotelId, hotelName, roomNumber - 1, rates, types));
                 
                 //set the "line" variable for next loop iteration
                 line = reader.readLine();
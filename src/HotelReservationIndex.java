@@ -0,0 +1,403 @@
+//-----------------------------------------
+// CLASS: HotelReservationIndex
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: The reservation indexes kept by ReservationDatabase for one
+//			hotel, each answering "which rooms are free on these dates":
+//				- an interval tree of reservations per room, the exact
+//				  answer for any dates and durations
+//				- a compressed set of occupied dates per room, covering any
+//				  date with memory in proportion to the stays booked
+//				- an occupancy calendar of the whole hotel, the fastest,
+//				  covering a window of days that may move forward
+//			Trees and sets are created when a room is first booked. The
+//			hotel's reservations are also kept in time partitions, for
+//			finding the reservations that overlap a range of dates, and in a
+//			daily manifest of arrivals, departures and guests in-house, and
+//			packed into flat arrays for reports that scan the whole hotel.
+//
+//			The sets and calendar record the days covered by reservations of
+//			at least one day. While the hotel holds no reservation of fewer
+//			days they give the same answer as the trees, and the calendar is
+//			used when the dates fit in it, then the sets. Otherwise the
+//			reservations overlapping the dates are taken from the partitions.
+//-----------------------------------------
+
+public class HotelReservationIndex extends ListItem
+{
+	
+	private ReservationIntervalTree[] roomTrees; //tree per room number (slot 0 unused), null until booked
+	private RoomOccupancySet[] roomDates;        //occupied dates per room number, null until booked
+	private OccupancyCalendar calendar;          //day by room occupancy of the hotel
+	private ReservationPartitions partitions;    //the hotel's reservations by start date partition
+	private DailyManifestIndex manifest;         //the hotel's reservations by day
+	private PackedStayTable stayTable;           //the hotel's room bookings in flat arrays
+	private int numRooms;                        //rooms are numbered 1..numRooms
+	private int numShortReservations;            //room bookings of fewer than one day
+	
+	//------------------------------------------------------
+	// HotelReservationIndex Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS:
+	//		Hotel: the hotel being indexed
+	//		int: first day of the calendar's window
+	//		int: length of the calendar's window
+	// Returns: None
+	//------------------------------------------------------
+	HotelReservationIndex(Hotel hotel, int firstDay, int numDays)
+	{
+		numRooms = hotel.getNumRooms();
+		roomTrees = new ReservationIntervalTree[numRooms + 1];
+		roomDates = new RoomOccupancySet[numRooms + 1];
+		calendar = new OccupancyCalendar(hotel, firstDay, numDays);
+		partitions = new ReservationPartitions();
+		manifest = new DailyManifestIndex();
+		stayTable = new PackedStayTable(numRooms);
+		numShortReservations = 0;
+	}
+	
+	//------------------------------------------------------
+	// addReservation
+	//
+	// PURPOSE:	index a reservation under each of its rooms and mark its
+	//			days occupied
+	// PARAMETERS:
+	//		Reservation: the reservation to index
+	// Returns: none
+	//------------------------------------------------------
+	public void addReservation(Reservation reservation)
+    {
+		partitions.insert(reservation);
+		manifest.insert(reservation);
+		stayTable.insert(reservation);
+		
+		ListCursor cursor = reservation.getRoomCursor();
+		while (cursor.hasNext())
+        {
+			int roomNumber = ((Room)cursor.next()).getId();
+			if (roomTrees[roomNumber] == null)
+            {
+				roomTrees[roomNumber] = new ReservationIntervalTree();
+				roomDates[roomNumber] = new RoomOccupancySet();
+			}//if
+			roomTrees[roomNumber].insert(reservation);
+			
+			if (reservation.getDuration() < 1)
+			    numShortReservations++;
+			else
+            {
+				roomDates[roomNumber].addRange(reservation.getStartDate(), lastDateOf(reservation));
+				//the dates are counted in long so that a stay ending on
+				//Integer.MAX_VALUE does not wrap around
+				for (long date = firstTrackedDate(reservation); date <= lastTrackedDate(reservation); date++)
+				    calendar.setOccupied(roomNumber, (int)date, true);
+			}//else
+		}//while
+	}
+	
+	//------------------------------------------------------
+	// removeReservation
+	//
+	// PURPOSE:	drop a reservation from the index of each of its rooms. Its
+	//			days are freed unless another reservation of the room
+	//			still covers them.
+	// PARAMETERS:
+	//		Reservation: the reservation to drop
+	// Returns: none
+	//------------------------------------------------------
+	public void removeReservation(Reservation reservation)
+    {
+		partitions.remove(reservation);
+		manifest.remove(reservation);
+		stayTable.remove(reservation);
+		
+		ListCursor cursor = reservation.getRoomCursor();
+		while (cursor.hasNext())
+        {
+			int roomNumber = ((Room)cursor.next()).getId();
+			ReservationIntervalTree roomTree = roomTrees[roomNumber];
+			if (roomTree == null || !roomTree.remove(reservation))
+			    continue;
+			
+			if (reservation.getDuration() < 1)
+			    numShortReservations--;
+			else
+            {
+				//clear the stay, then put back what other stays still cover
+				RoomOccupancySet occupiedDates = roomDates[roomNumber];
+				int firstDate = reservation.getStartDate();
+				int lastDate = lastDateOf(reservation);
+				occupiedDates.removeRange(firstDate, lastDate);
+				roomTree.addCoveredDatesTo(occupiedDates, firstDate, lastDate);
+				
+				for (long date = firstTrackedDate(reservation); date <= lastTrackedDate(reservation); date++)
+				    calendar.setOccupied(roomNumber, (int)date, occupiedDates.contains((int)date));
+			}//else
+		}//while
+	}
+	
+	//------------------------------------------------------
+	// getFreeRooms
+	//
+	// PURPOSE:	get the set of rooms with no reservation overlapping the
+	//			given dates, in the sense of DatabaseLookup.isDateOverlap
+	// PARAMETERS:
+	//		int: start date
+	//		int: duration
+	// Returns:
+	//		long[]: bitset of free rooms, bit n of word n / 64 for room n
+	//------------------------------------------------------
+	public long[] getFreeRooms(int startDate, int duration)
+    {
+		long[] freeRooms = new long[getNumRoomWords()];
+		getFreeRooms(startDate, duration, freeRooms);
+		return freeRooms;
+	}
+	
+	//------------------------------------------------------
+	// getFreeRooms
+	//
+	// PURPOSE:	fill a bitset with the rooms with no reservation overlapping
+	//			the given dates. Nothing is allocated unless stays of fewer
+	//			than one day are booked or the dates are outside the calendar.
+	// PARAMETERS:
+	//		int: start date
+	//		int: duration
+	//		long[]: the bitset to fill, at least getNumRoomWords() long; words
+	//				past those are left as they are
+	// Returns: none
+	//------------------------------------------------------
+	public void getFreeRooms(int startDate, int duration, long[] freeRooms)
+    {
+		boolean isByDays = numShortReservations == 0 && duration >= 1;
+		if (isByDays && calendar.isTracked(startDate, duration))
+        {
+			calendar.getFreeRooms(startDate, duration, freeRooms);
+			return;
+		}//if
+		
+		int numWords = getNumRoomWords();
+		for (int word = 0; word < numWords; word++)
+		    freeRooms[word] = 0L;
+		if (!isByDays)
+        {
+			//with stays of fewer than one day involved, start from every room
+			//free and take out the rooms of the reservations overlapping the
+			//dates, found in the partitions that cover them
+			for (int roomNumber = 1; roomNumber <= numRooms; roomNumber++)
+			    freeRooms[roomNumber >>> 6] |= 1L << roomNumber;
+			
+			OrderedList overlapping = new OrderedList();
+			partitions.addOverlappingTo(overlapping, startDate, duration);
+			ListCursor cursor = overlapping.getCursor();
+			while (cursor.hasNext())
+            {
+				ListCursor roomCursor = ((Reservation)cursor.next()).getRoomCursor();
+				while (roomCursor.hasNext())
+                {
+					int roomNumber = ((Room)roomCursor.next()).getId();
+					freeRooms[roomNumber >>> 6] &= ~(1L << roomNumber);
+				}//while
+			}//while
+			return;
+		}//if
+		
+		//otherwise ask each booked room's dates
+		int lastDate = (int)Math.min((long)startDate + duration - 1, Integer.MAX_VALUE);
+		for (int roomNumber = 1; roomNumber <= numRooms; roomNumber++)
+        {
+			if (roomTrees[roomNumber] == null || !roomDates[roomNumber].intersects(startDate, lastDate))
+			    freeRooms[roomNumber >>> 6] |= 1L << roomNumber;
+		}//for roomNumber
+	}
+	
+	//------------------------------------------------------
+	// getNumRoomWords
+	//
+	// PURPOSE:	returns the longs in a bitset of the hotel's rooms, one bit
+	//			per room number from 0
+	//------------------------------------------------------
+	public int getNumRoomWords() { return (numRooms >>> 6) + 1; }
+	
+	//------------------------------------------------------
+	// addOverlappingTo
+	//
+	// PURPOSE:	insert into a list every reservation of the hotel that
+	//			overlaps the given dates, in the sense of
+	//			DatabaseLookup.isDateOverlap
+	// PARAMETERS:
+	//		OrderedList: the list to add to
+	//		int: start date
+	//		int: duration
+	// Returns: none
+	//------------------------------------------------------
+	public void addOverlappingTo(OrderedList list, int startDate, int duration)
+    {
+		partitions.addOverlappingTo(list, startDate, duration);
+	}
+	
+	//------------------------------------------------------
+	// getNumOccupiedRooms
+	//
+	// PURPOSE:	count the rooms booked by some reservation overlapping the
+	//			given dates, by a scan of every booking of the hotel
+	// PARAMETERS:
+	//		int: start date
+	//		int: duration
+	//		long[]: bitset to work in, of at least numRooms / 64 + 1 longs
+	// Returns:
+	//		int: the number of rooms
+	//------------------------------------------------------
+	public int getNumOccupiedRooms(int startDate, int duration, long[] occupiedRooms)
+    {
+		stayTable.getOccupiedRooms(startDate, duration, occupiedRooms);
+		int numOccupied = 0;
+		int numWords = (numRooms >>> 6) + 1;
+		for (int word = 0; word < numWords; word++)
+		    numOccupied += Long.bitCount(occupiedRooms[word]);
+		return numOccupied;
+	}
+	
+	//------------------------------------------------------
+	// getManifest
+	//
+	// PURPOSE:	returns the daily manifest of the hotel's reservations
+	//------------------------------------------------------
+	public DailyManifestIndex getManifest() { return manifest; }
+	
+	//------------------------------------------------------
+	// getFreeRoomBound
+	//
+	// PURPOSE:	get an upper bound on the rooms free for the whole of the
+	//			given dates: the fewest free on any day the calendar tracks.
+	//			Stays of fewer than one day only make fewer rooms free, so
+	//			the bound holds with them too.
+	// PARAMETERS:
+	//		int: start date
+	//		int: duration
+	//		RoomType: type of the rooms counted, or null for every room
+	// Returns:
+	//		int: no more rooms than this are free
+	//------------------------------------------------------
+	public int getFreeRoomBound(int startDate, int duration, RoomType roomType)
+    {
+		return calendar.getFreeRoomBound(startDate, duration, roomType);
+	}
+	
+	//------------------------------------------------------
+	// getFirstFreeDate
+	//
+	// PURPOSE:	find the first start date, on or after a date, for which a
+	//			room is free for the given number of days
+	// PARAMETERS:
+	//		int: room number
+	//		int: earliest start date
+	//		int: duration (at least 1)
+	// Returns:
+	//		long: the start date, or RoomOccupancySet.NO_DATE if there is none
+	//------------------------------------------------------
+	public long getFirstFreeDate(int roomNumber, int fromDate, int duration)
+    {
+		if (roomTrees[roomNumber] == null)
+		    return fromDate;
+		
+		//the sets skip whole stays at a time; reservations of fewer than one
+		//day are not in them, so each window found is confirmed by the tree
+		long date = fromDate;
+		while (true)
+        {
+			date = roomDates[roomNumber].findFreeWindow(date, duration);
+			if (date == RoomOccupancySet.NO_DATE || numShortReservations == 0
+			    || !roomTrees[roomNumber].hasOverlap((int)date, duration))
+			    return date;
+			date++;
+		}//while
+	}
+	
+	//------------------------------------------------------
+	// advanceTo
+	//
+	// PURPOSE:	move the calendar's window forward to start at the given day.
+	//			The days it gains are filled in from the rooms' date sets.
+	// PARAMETERS:
+	//		int: the new first day
+	// Returns: none
+	//------------------------------------------------------
+	public void advanceTo(int firstDay)
+    {
+		long firstNewDay = Math.max((long)calendar.getLastDay() + 1, firstDay);
+		calendar.advanceTo(firstDay);
+		int lastDay = calendar.getLastDay();
+		
+		for (int roomNumber = 1; roomNumber <= numRooms; roomNumber++)
+        {
+			RoomOccupancySet occupiedDates = roomDates[roomNumber];
+			if (occupiedDates == null)
+			    continue;
+			for (long date = occupiedDates.nextPresent(firstNewDay); date <= lastDay; date = occupiedDates.nextPresent(date + 1))
+			    calendar.setOccupied(roomNumber, (int)date, true);
+		}//for roomNumber
+	}
+	
+	//------------------------------------------------------
+	// getRoomTree
+	//
+	// PURPOSE:	get the interval tree of a room
+	// PARAMETERS:
+	//		int: room number
+	// Returns:
+	//		ReservationIntervalTree: the room's tree, or null if the room
+	//		has never been booked
+	//------------------------------------------------------
+	public ReservationIntervalTree getRoomTree(int roomNumber)
+    {
+		if (roomNumber < 1 || roomNumber >= roomTrees.length)
+		    return null;
+		return roomTrees[roomNumber];
+	}
+	
+	//------------------------------------------------------
+	// lastDateOf
+	//
+	// PURPOSE:	get the last date of a reservation's stay
+	// PARAMETERS:
+	//		Reservation: a reservation of at least one day
+	// Returns:
+	//		int: the date, limited to the largest int
+	//------------------------------------------------------
+	private static int lastDateOf(Reservation reservation)
+    {
+		return (int)Math.min((long)reservation.getStartDate() + reservation.getDuration() - 1, Integer.MAX_VALUE);
+	}
+	
+	//------------------------------------------------------
+	// firstTrackedDate
+	//
+	// PURPOSE:	get the first date of a reservation's stay that the calendar tracks
+	// PARAMETERS:
+	//		Reservation: a reservation of at least one day
+	// Returns:
+	//		int: the date
+	//------------------------------------------------------
+	private int firstTrackedDate(Reservation reservation)
+    {
+		return Math.max(reservation.getStartDate(), calendar.getFirstDay());
+	}
+	
+	//------------------------------------------------------
+	// lastTrackedDate
+	//
+	// PURPOSE:	get the last date of a reservation's stay that the calendar tracks
+	// PARAMETERS:
+	//		Reservation: a reservation of at least one day
+	// Returns:
+	//		int: the date (before firstTrackedDate if no date is tracked)
+	//------------------------------------------------------
+	private int lastTrackedDate(Reservation reservation)
+    {
+		return Math.min(lastDateOf(reservation), calendar.getLastDay());
+	}
+	
+}//HotelReservationIndex
@@ -0,0 +1,199 @@
+//-----------------------------------------
+// CLASS: IntKeyMap
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: An open-addressing hash map from primitive int keys to ListItems.
+//			Keys are stored in a plain int array and probed linearly, so a
+//			lookup neither boxes the key nor builds a String from it.
+//			Null values are not allowed; a null slot marks an empty one.
+//-----------------------------------------
+
+public class IntKeyMap extends ListItem
+{
+	
+	private static final int INITIAL_CAPACITY = 16; //number of slots in a new map (power of two)
+	
+	private int[] keys;        //the key in each slot
+	private ListItem[] values; //the value in each slot, null if the slot is empty
+	private int size;          //number of mappings
+	
+	//------------------------------------------------------
+	// IntKeyMap Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	IntKeyMap()
+	{
+		keys = new int[INITIAL_CAPACITY];
+		values = new ListItem[INITIAL_CAPACITY];
+		size = 0;
+	}
+	
+	//------------------------------------------------------
+	// getSize
+	//
+	// PURPOSE:	Returns current number of mappings
+	// PARAMETERS: None
+	// Returns: Curent number of mappings
+	//------------------------------------------------------
+	public int getSize() { return size; }
+	
+	//------------------------------------------------------
+	// get
+	//
+	// PURPOSE:	get the value mapped to the given key
+	// PARAMETERS:
+	//		int: the key
+	// Returns:
+	//		ListItem: the mapped value or null if the key is not present
+	//------------------------------------------------------
+	public ListItem get( int key )
+	{
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while ( values[slot] != null )
+		{
+			if ( keys[slot] == key )
+			    return values[slot];
+			slot = (slot + 1) & mask;
+		}//while
+		
+		return null;
+	}
+	
+	//------------------------------------------------------
+	// containsKey
+	//
+	// PURPOSE:	checks whether the given key is present
+	// PARAMETERS:
+	//		int: the key
+	// Returns:
+	//		boolean: true if the key is mapped, false otherwise
+	//------------------------------------------------------
+	public boolean containsKey( int key ) { return get(key) != null; }
+	
+	//------------------------------------------------------
+	// put
+	//
+	// PURPOSE:	map the given key to the given value, replacing any previous value
+	// PARAMETERS:
+	//		int: the key
+	//		ListItem: the value (must not be null)
+	// Returns:
+	//		ListItem: the value previously mapped to the key, or null if none
+	//------------------------------------------------------
+	public ListItem put( int key, ListItem value )
+	{
+		//keep at least a quarter of the slots empty so probe runs stay short
+		if ( size + 1 > keys.length - (keys.length >> 2) )
+		    resize( keys.length << 1 );
+		
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while ( values[slot] != null )
+		{
+			if ( keys[slot] == key )
+			{
+				ListItem previous = values[slot];
+				values[slot] = value;
+				return previous;
+			}//if
+			slot = (slot + 1) & mask;
+		}//while
+		
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+		return null;
+	}
+	
+	//------------------------------------------------------
+	// remove
+	//
+	// PURPOSE:	remove the mapping for the given key. Later entries of the same
+	//			probe run are shifted back so no tombstones are needed.
+	// PARAMETERS:
+	//		int: the key
+	// Returns:
+	//		ListItem: the value that was mapped to the key, or null if none
+	//------------------------------------------------------
+	public ListItem remove( int key )
+	{
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while ( values[slot] != null && keys[slot] != key )
+		    slot = (slot + 1) & mask;
+		
+		if ( values[slot] == null )
+		    return null;
+		
+		ListItem removedValue = values[slot];
+		
+		//shift back any entry whose home slot is at or before the hole
+		int hole = slot;
+		int next = (hole + 1) & mask;
+		while ( values[next] != null )
+		{
+			int home = hash(keys[next]) & mask;
+			if ( ((next - home) & mask) >= ((next - hole) & mask) )
+			{
+				keys[hole] = keys[next];
+				values[hole] = values[next];
+				hole = next;
+			}//if
+			next = (next + 1) & mask;
+		}//while
+		values[hole] = null;
+		
+		size--;
+		return removedValue;
+	}
+	
+	//------------------------------------------------------
+	// resize
+	//
+	// PURPOSE:	re-insert every mapping into larger arrays
+	// PARAMETERS:
+	//		int: the new number of slots (power of two)
+	// Returns: none
+	//------------------------------------------------------
+	private void resize( int capacity )
+	{
+		int[] oldKeys = keys;
+		ListItem[] oldValues = values;
+		keys = new int[capacity];
+		values = new ListItem[capacity];
+		
+		int mask = capacity - 1;
+		for ( int ii = 0; ii < oldKeys.length; ii++ )
+		{
+			if ( oldValues[ii] != null )
+			{
+				int slot = hash(oldKeys[ii]) & mask;
+				while ( values[slot] != null )
+				    slot = (slot + 1) & mask;
+				keys[slot] = oldKeys[ii];
+				values[slot] = oldValues[ii];
+			}//if
+		}//for ii
+	}
+	
+	//------------------------------------------------------
+	// hash
+	//
+	// PURPOSE:	scrambles a key so that runs of consecutive IDs spread over the table
+	// PARAMETERS:
+	//		int: the key
+	// Returns:
+	//		int: the scrambled key
+	//------------------------------------------------------
+	private static int hash( int key )
+	{
+		int hashCode = key * 0x9E3779B9;
+		return hashCode ^ (hashCode >>> 16);
+	}
+
+} //IntKeyMap
@@ -0,0 +1,23 @@
+//-----------------------------------------
+// CLASS: InvalidCursorStateError
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Error created when a ListCursor is used incorrectly, e.g. next() past
+//			the end of the list or remove() without a preceding next()
+//
+//-----------------------------------------
+
+public class InvalidCursorStateError extends FatalError {
+
+	//------------------------------------------------------
+	// InvalidCursorStateError Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS:
+	//		String: method name in which error occurred
+	// Returns: None
+	//------------------------------------------------------
+	public InvalidCursorStateError(String methodName) {super("Invalid cursor state in " + methodName);}
+
+} //InvalidCursorStateError
@@ -0,0 +1,26 @@
+//-----------------------------------------
+// CLASS: InvalidDayAdvanceRequestError
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: error thrown when a request in the reservation file cannot move
+//			the booking horizon to the day it gives
+//
+//-----------------------------------------
+
+public class InvalidDayAdvanceRequestError extends RequestError{
+
+	//------------------------------------------------------
+	// InvalidDayAdvanceRequestError Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS: 
+	//		String: the request that generated the error as it appears in the reservation file
+	//		String: why the day cannot be advanced to
+	// Returns: None
+	//------------------------------------------------------
+	public InvalidDayAdvanceRequestError(String request, String problem) {
+		super(request, problem);		
+	}
+	
+}//InvalidDayAdvanceRequestError
@@ -0,0 +1,25 @@
+//-----------------------------------------
+// CLASS: InvalidDurationRequestError
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: error thrown when a missing or invalid duration is given in reservation file
+//
+//-----------------------------------------
+
+public class InvalidDurationRequestError extends RequestError{
+
+	//------------------------------------------------------
+	// InvalidDurationRequestError Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS: 
+	//		String: the request that generated the error as it appears in the reservation file
+	//		int: reservation duration
+	// Returns: None
+	//------------------------------------------------------
+	public InvalidDurationRequestError(String request, int duration) {
+		super(request, "Reservation duration: " + duration + " is invalid");		
+	}
+	
+}//InvalidDurationRequestError
@@ -0,0 +1,27 @@
+//-----------------------------------------
+// CLASS: InvalidRoomNumberLookupError
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: error thrown when a lookup is given a room number that does not
+//			exist in its hotel
+//
+//-----------------------------------------
+
+public class InvalidRoomNumberLookupError extends LookupError{
+
+	//------------------------------------------------------
+	// InvalidRoomNumberLookupError Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS: 
+	//		String: string representation of method in which error occurred
+	//		int: the hotel ID
+	//		int: the invalid room number
+	// Returns: None
+	//------------------------------------------------------
+	public InvalidRoomNumberLookupError(String method, int hotelId, int roomNumber) {
+		super(method, "Room number: " + roomNumber + " is invalid in hotel " + hotelId);			
+	}
+	
+}//InvalidRoomNumberLookupError
@@ -0,0 +1,46 @@
+//-----------------------------------------
+// CLASS: ListCursor
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: An abstract class defining a forward cursor over the items of a list.
+//			A cursor remembers its position, so walking a whole list with it
+//			is linear rather than restarting from the front on every step
+//			the way repeated getAt calls do.
+//
+//-----------------------------------------
+
+public abstract class ListCursor
+{
+
+	//------------------------------------------------------
+	// hasNext (abstract)
+	//
+	// PURPOSE:	checks whether there are items left to visit
+	// PARAMETERS: none
+	// Returns:
+	//		boolean: true if next() can be called, false otherwise
+	//------------------------------------------------------
+	public abstract boolean hasNext();
+
+	//------------------------------------------------------
+	// next (abstract)
+	//
+	// PURPOSE:	advances the cursor and returns the item it moved over
+	// PARAMETERS: none
+	// Returns:
+	//		ListItem: the next item in the list
+	//------------------------------------------------------
+	public abstract ListItem next();
+
+	//------------------------------------------------------
+	// remove (abstract)
+	//
+	// PURPOSE:	removes the item last returned by next() from the list.
+	//			Can only be called once per call to next().
+	// PARAMETERS: none
+	// Returns: none
+	//------------------------------------------------------
+	public abstract void remove();
+
+} //ListCursor
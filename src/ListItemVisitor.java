@@ -0,0 +1,24 @@
+//-----------------------------------------
+// CLASS: ListItemVisitor
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: An abstract class defining an action that is applied to every
+//			item of a list by the lists' forEach methods.
+//
+//-----------------------------------------
+
+public abstract class ListItemVisitor
+{
+
+	//------------------------------------------------------
+	// visit (abstract)
+	//
+	// PURPOSE:	applies this visitor's action to one item
+	// PARAMETERS:
+	//		ListItem: the item being visited
+	// Returns: none
+	//------------------------------------------------------
+	public abstract void visit(ListItem item);
+
+} //ListItemVisitor
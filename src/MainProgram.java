@@ -11,10 +11,18 @@
 	//
 	// PURPOSE:	main method - gets things going
 	// PARAMETERS: 
-	//		String[]: commandline argument list
+	//		String[]: commandline argument list. An optional first argument
+	//		sets a rolling booking horizon of that many days, starting at
+	//		the day given by an optional second argument (default 0).
 	// Returns: none
 	//------------------------------------------------------	 
 	public static void main(String[] args){
+		//set up the booking horizon if one was asked for
+		if (args.length > 2)
+			(new CommandLineArgumentError("expected at most 2 arguments but got " + args.length)).throwError();
+		if (args.length > 0)
+			ReservationDatabase.setBookingHorizon(args.length > 1 ? parseDayArgument(args[1], "current day") : 0, parseDayArgument(args[0], "horizon days"));
+		
 		//This program begins by reading the default hotel file and
 		//using its data to setup the hotel database
 		HotelFileProcessor.processHotelFile();
@@ -29,5 +37,26 @@
 		 
 		System.out.println("\nEnd of Program\n");
 	}//main
+	
+	//------------------------------------------------------
+	// parseDayArgument
+	//
+	// PURPOSE:	read a whole number of days from a command line argument,
+	//			issuing an error if it is not one
+	// PARAMETERS: 
+	//		String: the argument
+	//		String: what the argument gives, for the error message
+	// Returns:
+	//		int: the number
+	//------------------------------------------------------
+	private static int parseDayArgument(String arg, String description){
+		try{
+			return Integer.parseInt(arg.trim());
+		}//try
+		catch (NumberFormatException ex){
+			(new CommandLineArgumentError(description + " \"" + arg + "\" is not a whole number")).throwError();
+			return 0;
+		}//catch
+	}
 
  }//MainProgram
@@ -0,0 +1,305 @@
+//-----------------------------------------
+// CLASS: OccupancyCalendar
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: A day by room occupancy bitmap for one hotel. Each day has a row
+//			of longs holding one bit per room (bit n for room n, bit 0 unused),
+//			set while some reservation of that room covers the day. The rooms
+//			free for a run of days are then the complement of the OR of those
+//			rows, found a word (64 rooms) at a time.
+//
+//			A window of consecutive days is tracked, from getFirstDay() to
+//			getLastDay(). Rows are kept in a ring: day d uses slot d modulo
+//			the window length, so when the window moves forward the rows of
+//			the days it leaves are cleared and reused for the days it gains.
+//			Slots are only allocated as far as the latest day booked.
+//
+//			Alongside the rows, a DayCountTree per room type (and one for the
+//			whole hotel) counts the rooms occupied in each slot, so the fewest
+//			rooms free on any day of a range is found in O(log days). No more
+//			rooms than that can be free for the whole range.
+//-----------------------------------------
+
+public class OccupancyCalendar extends ListItem
+{
+	
+	public static final int MAX_DAYS = 1 << 14; //longest window tracked
+	private static final int INITIAL_DAYS = 64; //slots in a new calendar
+	
+	private int numRooms;     //rooms are numbered 1..numRooms
+	private int wordsPerDay;  //longs in one day's row
+	private int firstDay;     //first day of the window
+	private int numDays;      //length of the window
+	private long[][] rows;    //ring of day rows, null until a room is booked that day
+	private Hotel hotel;      //the hotel, for the types of its rooms
+	
+	private int[] numRoomsByType;              //rooms of each type, by RoomType code
+	private DayCountTree occupiedByDay;        //rooms occupied per slot
+	private DayCountTree[] occupiedByTypeByDay; //rooms of each type occupied per slot, by RoomType code
+	
+	//------------------------------------------------------
+	// OccupancyCalendar Constructor
+	//
+	// PURPOSE:	Initializes this object with every room free
+	// PARAMETERS:
+	//		Hotel: the hotel whose rooms are tracked
+	//		int: first day of the window
+	//		int: length of the window (1..MAX_DAYS)
+	// Returns: None
+	//------------------------------------------------------
+	OccupancyCalendar(Hotel hotel, int firstDay, int numDays)
+	{
+		this.hotel = hotel;
+		numRooms = hotel.getNumRooms();
+		wordsPerDay = (numRooms >>> 6) + 1;
+		this.firstDay = firstDay;
+		this.numDays = numDays;
+		rows = new long[Math.min(INITIAL_DAYS, numDays)][];
+		
+		RoomType[] types = RoomType.values();
+		numRoomsByType = new int[types.length];
+		for (int roomNumber = 1; roomNumber <= numRooms; roomNumber++)
+		    numRoomsByType[hotel.getTypeOfRoom(roomNumber).getCode()]++;
+		
+		occupiedByDay = new DayCountTree(rows.length);
+		occupiedByTypeByDay = new DayCountTree[types.length];
+		for (int code = 0; code < types.length; code++)
+		    occupiedByTypeByDay[code] = new DayCountTree(rows.length);
+	}
+	
+	//------------------------------------------------------
+	// getFirstDay
+	//
+	// PURPOSE:	returns the first day of the window
+	//------------------------------------------------------
+	public int getFirstDay() { return firstDay; }
+	
+	//------------------------------------------------------
+	// getLastDay
+	//
+	// PURPOSE:	returns the last day of the window
+	//------------------------------------------------------
+	public int getLastDay() { return (int)Math.min((long)firstDay + numDays - 1, Integer.MAX_VALUE); }
+	
+	//------------------------------------------------------
+	// isTracked
+	//
+	// PURPOSE:	checks whether every day of a date range is in the window
+	// PARAMETERS:
+	//		int: start date
+	//		int: duration (at least 1)
+	// Returns:
+	//		boolean: true if the range lies within the window
+	//------------------------------------------------------
+	public boolean isTracked(int startDate, int duration)
+    {
+		return startDate >= firstDay && (long)startDate + duration - 1 <= getLastDay();
+	}
+	
+	//------------------------------------------------------
+	// advanceTo
+	//
+	// PURPOSE:	move the window forward so that it starts at the given day.
+	//			The rows of the days left behind are cleared for reuse.
+	// PARAMETERS:
+	//		int: the new first day (not before the current one)
+	// Returns: none
+	//------------------------------------------------------
+	public void advanceTo(int newFirstDay)
+    {
+		//the days are counted in long so that a window ending on
+		//Integer.MAX_VALUE does not wrap around
+		long numDropped = Math.min((long)newFirstDay - firstDay, numDays);
+		for (long day = firstDay; day < firstDay + numDropped; day++)
+        {
+			int slot = slotOf((int)day);
+			if (slot < rows.length && rows[slot] != null)
+            {
+				for (int word = 0; word < wordsPerDay; word++)
+				    rows[slot][word] = 0L;
+				occupiedByDay.set(slot, 0);
+				for (int code = 0; code < occupiedByTypeByDay.length; code++)
+				    occupiedByTypeByDay[code].set(slot, 0);
+			}//if
+		}//for day
+		firstDay = newFirstDay;
+	}
+	
+	//------------------------------------------------------
+	// setOccupied
+	//
+	// PURPOSE:	mark a room occupied or free on a day of the window
+	// PARAMETERS:
+	//		int: room number
+	//		int: date (getFirstDay()..getLastDay())
+	//		boolean: true for occupied, false for free
+	// Returns: none
+	//------------------------------------------------------
+	public void setOccupied(int roomNumber, int date, boolean isOccupied)
+    {
+		int slot = slotOf(date);
+		if (slot >= rows.length)
+        {
+			if (!isOccupied)
+			    return; //slots past the allocated ones are free already
+			
+			int newLength = rows.length;
+			while (newLength <= slot)
+			    newLength <<= 1;
+			long[][] newRows = new long[Math.min(newLength, numDays)][];
+			System.arraycopy(rows, 0, newRows, 0, rows.length);
+			rows = newRows;
+			
+			occupiedByDay.grow(rows.length);
+			for (int code = 0; code < occupiedByTypeByDay.length; code++)
+			    occupiedByTypeByDay[code].grow(rows.length);
+		}//if
+		
+		long[] row = rows[slot];
+		if (row == null)
+        {
+			if (!isOccupied)
+			    return;
+			row = new long[wordsPerDay];
+			rows[slot] = row;
+		}//if
+		
+		long bit = 1L << roomNumber; //shift uses the low six bits only
+		if (((row[roomNumber >>> 6] & bit) != 0) == isOccupied)
+		    return; //no change, so the counts stay as they are
+		
+		int delta;
+		if (isOccupied)
+        {
+			row[roomNumber >>> 6] |= bit;
+			delta = 1;
+		}//if
+		else
+        {
+			row[roomNumber >>> 6] &= ~bit;
+			delta = -1;
+		}//else
+		
+		DayCountTree typeCounts = occupiedByTypeByDay[hotel.getTypeOfRoom(roomNumber).getCode()];
+		occupiedByDay.set(slot, occupiedByDay.get(slot) + delta);
+		typeCounts.set(slot, typeCounts.get(slot) + delta);
+	}
+	
+	//------------------------------------------------------
+	// getFreeRooms
+	//
+	// PURPOSE:	get the set of rooms free on every day of a tracked range
+	// PARAMETERS:
+	//		int: start date
+	//		int: duration (at least 1)
+	// Returns:
+	//		long[]: bitset of free rooms, bit n of word n / 64 for room n
+	//------------------------------------------------------
+	public long[] getFreeRooms(int startDate, int duration)
+    {
+		long[] freeRooms = new long[wordsPerDay];
+		getFreeRooms(startDate, duration, freeRooms);
+		return freeRooms;
+	}
+	
+	//------------------------------------------------------
+	// getFreeRooms
+	//
+	// PURPOSE:	fill a bitset with the rooms free on every day of a tracked
+	//			range, without allocating
+	// PARAMETERS:
+	//		int: start date
+	//		int: duration (at least 1)
+	//		long[]: the bitset to fill, at least one word per 64 rooms
+	//				counting room 0; words past those are left as they are
+	// Returns: none
+	//------------------------------------------------------
+	public void getFreeRooms(int startDate, int duration, long[] freeRooms)
+    {
+		//OR the occupied rooms of every allocated day in the range
+		long[] occupied = freeRooms;
+		for (int word = 0; word < wordsPerDay; word++)
+		    occupied[word] = 0L;
+		for (long date = startDate; date <= (long)startDate + duration - 1; date++)
+        {
+			int slot = slotOf((int)date);
+			long[] row = (slot < rows.length) ? rows[slot] : null;
+			if (row != null)
+			    for (int word = 0; word < wordsPerDay; word++)
+			        occupied[word] |= row[word];
+		}//for date
+		
+		//free rooms are the others, minus bit 0 and bits past the last room
+		for (int word = 0; word < wordsPerDay; word++)
+		    freeRooms[word] = ~occupied[word];
+		freeRooms[0] &= ~1L;
+		freeRooms[wordsPerDay - 1] &= -1L >>> (63 - (numRooms & 63));
+	}
+	
+	//------------------------------------------------------
+	// getFreeRoomBound
+	//
+	// PURPOSE:	get the fewest rooms free on any tracked day of a range.
+	//			No more rooms than this are free for the whole range; days
+	//			outside the window are not counted.
+	// PARAMETERS:
+	//		int: start date
+	//		int: duration
+	//		RoomType: type of the rooms counted, or null for every room
+	// Returns:
+	//		int: the bound (the number of rooms counted if no day of the
+	//			 range is tracked)
+	//------------------------------------------------------
+	public int getFreeRoomBound(int startDate, int duration, RoomType roomType)
+    {
+		int numCounted = numRooms;
+		DayCountTree occupiedCounts = occupiedByDay;
+		if (roomType != null)
+        {
+			numCounted = numRoomsByType[roomType.getCode()];
+			occupiedCounts = occupiedByTypeByDay[roomType.getCode()];
+		}//if
+		
+		//clip the range to the window
+		long firstDate = Math.max(startDate, firstDay);
+		long lastDate = Math.min((long)startDate + duration - 1, getLastDay());
+		if (duration < 1 || firstDate > lastDate)
+		    return numCounted;
+		
+		//the clipped range is at most one window long, so it takes up one run
+		//of slots or, where it wraps around the ring, two
+		int firstSlot = slotOf((int)firstDate);
+		int lastSlot = slotOf((int)lastDate);
+		int maxOccupied;
+		if (firstSlot <= lastSlot)
+		    maxOccupied = getMaxOccupied(occupiedCounts, firstSlot, lastSlot);
+		else
+		    maxOccupied = Math.max(getMaxOccupied(occupiedCounts, firstSlot, numDays - 1),
+		                           getMaxOccupied(occupiedCounts, 0, lastSlot));
+		
+		return numCounted - maxOccupied;
+	}
+	
+	//------------------------------------------------------
+	// getMaxOccupied
+	//
+	// PURPOSE:	get the most rooms occupied in a run of slots. Slots past the
+	//			allocated ones have none occupied.
+	//------------------------------------------------------
+	private static int getMaxOccupied(DayCountTree occupiedCounts, int firstSlot, int lastSlot)
+    {
+		lastSlot = Math.min(lastSlot, occupiedCounts.getNumSlots() - 1);
+		if (firstSlot > lastSlot)
+		    return 0;
+		return occupiedCounts.getMax(firstSlot, lastSlot);
+	}
+	
+	//------------------------------------------------------
+	// slotOf
+	//
+	// PURPOSE:	get the ring slot of a day
+	//------------------------------------------------------
+	private int slotOf(int date) { return Math.floorMod(date, numDays); }
+	
+}//OccupancyCalendar
@@ -3,13 +3,14 @@
 //
 // Author: Cong Thanh Tran
 //
-// REMARKS: Implements a simple singly-linked ordered list 
+// REMARKS: Implements a simple ordered list. The items themselves are kept
+//			by an OrderedStorage, an adaptive one unless another is given.
 //-----------------------------------------
 
 public class OrderedList extends ListItem
 {
 
-	private SimpleLinkedList list; //note use of containment inheritance type
+	private OrderedStorage storage; //note use of containment inheritance type
 	
 	//------------------------------------------------------
 	// OrderedList Constructor
@@ -18,7 +19,17 @@ public class OrderedList extends ListItem
 	// PARAMETERS: None
 	// Returns: None
 	//------------------------------------------------------
-	OrderedList() { list = new SimpleLinkedList(); }
+	OrderedList() { this(new AdaptiveOrderedStorage()); }
+	
+	//------------------------------------------------------
+	// OrderedList Constructor
+	//
+	// PURPOSE:	Initializes this object with the given storage
+	// PARAMETERS:
+	//		OrderedStorage: the (empty) storage that will hold the items
+	// Returns: None
+	//------------------------------------------------------
+	OrderedList(OrderedStorage storage) { this.storage = storage; }
 	
 	//------------------------------------------------------
 	// insert
@@ -28,14 +39,7 @@ public class OrderedList extends ListItem
 	//		OrderedItem: item to insert
 	// Returns: none
 	//------------------------------------------------------
-	public void insert(OrderedItem item)
-    {
-		//ordered insert
-		int index = 0;
-		while ( index < list.getSize() && getAt(index).compareTo(item) <= 0 )
-            index++;
-		list.insertAt(item, index);		 
-	} //insert
+	public void insert(OrderedItem item) { storage.insert(item); }
 	
 	//------------------------------------------------------
 	// getAt
@@ -46,12 +50,7 @@ public class OrderedList extends ListItem
 	// Returns:
 	//		OrderedItem: the fetched item
 	//------------------------------------------------------
-	public OrderedItem getAt( int index )
-    {
-		ListItem item = list.getAt(index);
-		assert item instanceof OrderedItem;
-		return ( OrderedItem )item;
-	}
+	public OrderedItem getAt( int index ) { return storage.getAt(index); }
 	
 	//------------------------------------------------------
 	// removeAt
@@ -62,12 +61,19 @@ public class OrderedList extends ListItem
 	// Returns:
 	//		OrderedItem: the item that was removed
 	//------------------------------------------------------
-	public OrderedItem removeAt( int index )
-    {
-		ListItem item = list.removeAt(index);
-		assert item instanceof OrderedItem;
-		return (OrderedItem)item;
-	} //removeAt
+	public OrderedItem removeAt( int index ) { return storage.removeAt(index); }
+	
+	//------------------------------------------------------
+	// removeItem
+	//
+	// PURPOSE:	remove the given item itself, e.g. one of several items
+	//			comparing equal to each other
+	// PARAMETERS:
+	//		OrderedItem: the item to remove
+	// Returns:
+	//		boolean: true if the item was found and removed
+	//------------------------------------------------------
+	public boolean removeItem( OrderedItem item ) { return storage.removeItem(item); }
 	
 	//------------------------------------------------------
 	// getSize
@@ -76,7 +82,63 @@ public class OrderedList extends ListItem
 	// PARAMETERS: None
 	// Returns: Curent number of elements
 	//------------------------------------------------------
-	public int getSize() { return list.getSize(); }
+	public int getSize() { return storage.getSize(); }
+	
+	//------------------------------------------------------
+	// getCursor
+	//
+	// PURPOSE:	get a forward cursor over the items in ascending order.
+	//			Removing through the cursor keeps the list ordered.
+	// PARAMETERS: none
+	// Returns:
+	//		ListCursor: a cursor positioned before the first item
+	//------------------------------------------------------
+	public ListCursor getCursor() { return storage.getCursor(); }
+	
+	//------------------------------------------------------
+	// seek
+	//
+	// PURPOSE:	get a forward cursor positioned before the first item that is
+	//			greater than or equal to the given one, e.g. the start of a range
+	// PARAMETERS:
+	//		OrderedItem: the item to compare against
+	// Returns:
+	//		ListCursor: a cursor over the items from that point on
+	//------------------------------------------------------
+	public ListCursor seek(OrderedItem item) { return storage.seek(item); }
+	
+	//------------------------------------------------------
+	// getSnapshot
+	//
+	// PURPOSE:	get a separate list holding the current items, e.g. for a
+	//			reader that must see one consistent state while this list keeps
+	//			changing. Taken in O(1) when the storage is persistent.
+	// PARAMETERS: none
+	// Returns:
+	//		OrderedList: the snapshot
+	//------------------------------------------------------
+	public OrderedList getSnapshot() { return new OrderedList(storage.snapshot()); }
+	
+	//------------------------------------------------------
+	// getStorageSnapshot
+	//
+	// PURPOSE:	get a snapshot of the storage, for subclasses building a
+	//			snapshot of their own type
+	// PARAMETERS: none
+	// Returns:
+	//		OrderedStorage: the snapshot of the storage
+	//------------------------------------------------------
+	protected OrderedStorage getStorageSnapshot() { return storage.snapshot(); }
+	
+	//------------------------------------------------------
+	// forEach
+	//
+	// PURPOSE:	apply the given visitor to every item in ascending order
+	// PARAMETERS:
+	//		ListItemVisitor: the action to apply to each item
+	// Returns: none
+	//------------------------------------------------------
+	public void forEach(ListItemVisitor visitor) { storage.forEach(visitor); }
 	
 	//------------------------------------------------------
 	// toString
@@ -86,6 +148,6 @@ public class OrderedList extends ListItem
 	// Returns: 
 	//		String: String representation of this list
 	//------------------------------------------------------
-	public String toString() { return list.toString(); }
+	public String toString() { return storage.toString(); }
 
 }//OrderedList
@@ -0,0 +1,23 @@
+//-----------------------------------------
+// CLASS: OrderedListOutOfBoundsError
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Error created when an index out-of-bounds error is encountered in an
+//			OrderedStorage that is not backed by a SimpleLinkedList
+//
+//-----------------------------------------
+
+public class OrderedListOutOfBoundsError extends FatalError {
+
+	//------------------------------------------------------
+	// OrderedListOutOfBoundsError Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS:
+	//		String: name of the storage class in which the error occurred
+	// Returns: None
+	//------------------------------------------------------
+	public OrderedListOutOfBoundsError(String storageName) {super("Index out of bounds error in " + storageName);}
+
+} //OrderedListOutOfBoundsError
@@ -0,0 +1,144 @@
+//-----------------------------------------
+// CLASS: OrderedStorage
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: An abstract class defining how an OrderedList keeps its items.
+//			OrderedList handles the list contract and type checking and hands
+//			the actual ordering and positional access to one of these, so
+//			different layouts can be chosen per list without changing callers.
+//
+//-----------------------------------------
+
+public abstract class OrderedStorage
+{
+
+	//------------------------------------------------------
+	// insert (abstract)
+	//
+	// PURPOSE:	insert item in ascending order, after any items equal to it
+	// PARAMETERS:
+	//		OrderedItem: item to insert
+	// Returns: none
+	//------------------------------------------------------
+	public abstract void insert(OrderedItem item);
+
+	//------------------------------------------------------
+	// getAt (abstract)
+	//
+	// PURPOSE:	get item at specified index without changing the storage
+	// PARAMETERS:
+	//		int: index of item to get (zero-based indexing)
+	// Returns:
+	//		OrderedItem: the fetched item
+	//------------------------------------------------------
+	public abstract OrderedItem getAt(int index);
+
+	//------------------------------------------------------
+	// removeAt (abstract)
+	//
+	// PURPOSE:	remove item at specified index
+	// PARAMETERS:
+	//		int: index at which to remove (zero-based indexing)
+	// Returns:
+	//		OrderedItem: the item that was removed
+	//------------------------------------------------------
+	public abstract OrderedItem removeAt(int index);
+
+	//------------------------------------------------------
+	// getSize (abstract)
+	//
+	// PURPOSE:	Returns current number of elements
+	// PARAMETERS: None
+	// Returns: Curent number of elements
+	//------------------------------------------------------
+	public abstract int getSize();
+
+	//------------------------------------------------------
+	// getCursor (abstract)
+	//
+	// PURPOSE:	get a forward cursor over the items in ascending order
+	// PARAMETERS: none
+	// Returns:
+	//		ListCursor: a cursor positioned before the first item
+	//------------------------------------------------------
+	public abstract ListCursor getCursor();
+
+	//------------------------------------------------------
+	// seek (abstract)
+	//
+	// PURPOSE:	get a forward cursor positioned before the first item
+	//			that is greater than or equal to the given one
+	// PARAMETERS:
+	//		OrderedItem: the item to compare against
+	// Returns:
+	//		ListCursor: a cursor over the items from that point on
+	//------------------------------------------------------
+	public abstract ListCursor seek(OrderedItem item);
+
+	//------------------------------------------------------
+	// removeItem
+	//
+	// PURPOSE:	remove the given item itself, not just one equal to it
+	// PARAMETERS:
+	//		OrderedItem: the item to remove
+	// Returns:
+	//		boolean: true if the item was found and removed
+	//------------------------------------------------------
+	public boolean removeItem(OrderedItem item)
+    {
+		//items equal to it follow one another from where seek() stops, so
+		//only those are checked by reference
+		ListCursor cursor = seek(item);
+		boolean isRemoved = false;
+		boolean isPastEqual = false;
+		while ( !isRemoved && !isPastEqual && cursor.hasNext() )
+		{
+			OrderedItem candidate = (OrderedItem)cursor.next();
+			if ( candidate == item )
+			{
+				cursor.remove();
+				isRemoved = true;
+			}//if
+			else if ( candidate.compareTo(item) != 0 )
+			    isPastEqual = true;
+		}//while
+		return isRemoved;
+	}
+
+	//------------------------------------------------------
+	// forEach
+	//
+	// PURPOSE:	apply the given visitor to every item in ascending order
+	// PARAMETERS:
+	//		ListItemVisitor: the action to apply to each item
+	// Returns: none
+	//------------------------------------------------------
+	public void forEach(ListItemVisitor visitor)
+    {
+		ListCursor cursor = getCursor();
+		while ( cursor.hasNext() )
+		    visitor.visit( cursor.next() );
+	}
+	
+	//------------------------------------------------------
+	// snapshot
+	//
+	// PURPOSE:	get a separate storage holding the current items, so that
+	//			later changes to either one are not seen by the other. By
+	//			default the items are copied; persistent storages share them.
+	// PARAMETERS: none
+	// Returns:
+	//		OrderedStorage: the snapshot
+	//------------------------------------------------------
+	public OrderedStorage snapshot()
+    {
+		//items arrive in ascending order, so each lands after the ones before it
+		OrderedStorage copy = new ArrayOrderedStorage();
+		ListCursor cursor = getCursor();
+		while ( cursor.hasNext() )
+		    copy.insert( (OrderedItem)cursor.next() );
+		return copy;
+	}
+
+}//OrderedStorage
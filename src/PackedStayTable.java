@@ -0,0 +1,228 @@
+//-----------------------------------------
+// CLASS: PackedStayTable
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: The room bookings of one hotel packed into parallel arrays of
+//			start dates, end dates and room numbers, one row per room of
+//			a reservation, for reports that scan the whole hotel. The scan
+//			applies the rule of DatabaseLookup.isDateOverlap to every row
+//			without branching, so it reads the arrays front to back at
+//			memory speed and leaves the JIT free to vectorize the loop.
+//
+//			A reservation's rows are added together. Removing it sets their
+//			room numbers to 0, a room no scan reports; the arrays are
+//			compacted once half the rows are dead.
+//-----------------------------------------
+
+public class PackedStayTable extends ListItem
+{
+	
+	private static final int INITIAL_CAPACITY = 64; //rows in a new table
+	
+	private int[] startDates;     //start date of each row
+	private long[] endDates;      //end date of each row, start + duration - 1 as isDateOverlap has it
+	private int[] roomNumbers;    //room of each row, 0 once dead
+	private int[] reservationIds; //ID of the reservation of each row
+	private int numRows;          //rows in use, dead or alive
+	private int numDeadRows;      //rows of removed reservations
+	private IntKeyMap rowsById;   //the rows of each reservation, keyed by reservation ID
+	private int numRooms;         //rooms are numbered 1..numRooms
+	
+	//------------------------------------------------------
+	// PackedStayTable Constructor
+	//
+	// PURPOSE:	Initializes this object with no rows
+	// PARAMETERS:
+	//		int: number of rooms in the hotel
+	// Returns: None
+	//------------------------------------------------------
+	PackedStayTable(int numRooms)
+	{
+		this.numRooms = numRooms;
+		startDates = new int[INITIAL_CAPACITY];
+		endDates = new long[INITIAL_CAPACITY];
+		roomNumbers = new int[INITIAL_CAPACITY];
+		reservationIds = new int[INITIAL_CAPACITY];
+		numRows = 0;
+		numDeadRows = 0;
+		rowsById = new IntKeyMap();
+	}
+	
+	//------------------------------------------------------
+	// insert
+	//
+	// PURPOSE:	add a row for each room of a reservation
+	// PARAMETERS:
+	//		Reservation: the reservation to add
+	// Returns: none
+	//------------------------------------------------------
+	public void insert(Reservation reservation)
+    {
+		int startDate = reservation.getStartDate();
+		long endDate = (long)startDate + reservation.getDuration() - 1;
+		int firstRow = numRows;
+		
+		ListCursor cursor = reservation.getRoomCursor();
+		while (cursor.hasNext())
+        {
+			if (numRows == startDates.length)
+			    resize(numRows << 1);
+			startDates[numRows] = startDate;
+			endDates[numRows] = endDate;
+			roomNumbers[numRows] = ((Room)cursor.next()).getId();
+			reservationIds[numRows] = reservation.getId();
+			numRows++;
+		}//while
+		
+		rowsById.put(reservation.getId(), new RowSpan(firstRow, numRows - firstRow));
+	}
+	
+	//------------------------------------------------------
+	// remove
+	//
+	// PURPOSE:	kill the rows of a reservation
+	// PARAMETERS:
+	//		Reservation: the reservation to remove
+	// Returns:
+	//		boolean: true if the reservation was held
+	//------------------------------------------------------
+	public boolean remove(Reservation reservation)
+    {
+		RowSpan rows = (RowSpan)rowsById.remove(reservation.getId());
+		if (rows == null)
+		    return false;
+		
+		for (int row = rows.firstRow; row < rows.firstRow + rows.numRows; row++)
+		    roomNumbers[row] = 0;
+		numDeadRows += rows.numRows;
+		
+		if (numDeadRows > numRows >> 1)
+		    compact();
+		return true;
+	}
+	
+	//------------------------------------------------------
+	// getOccupiedRooms
+	//
+	// PURPOSE:	get the set of rooms booked by some reservation overlapping
+	//			the given dates, in the sense of DatabaseLookup.isDateOverlap,
+	//			into a bitset the caller supplies and may reuse
+	// PARAMETERS:
+	//		int: start date
+	//		int: duration
+	//		long[]: bitset to fill, of at least numRooms / 64 + 1 longs: bit n
+	//				of word n / 64 is set for room n. Words past the last room
+	//				are left as they are.
+	// Returns: none
+	//------------------------------------------------------
+	public void getOccupiedRooms(int startDate, int duration, long[] occupiedRooms)
+    {
+		long endDate = (long)startDate + duration - 1;
+		int numWords = (numRooms >>> 6) + 1;
+		for (int word = 0; word < numWords; word++)
+		    occupiedRooms[word] = 0;
+		
+		//the four tests of isDateOverlap, each made with non-short-circuit
+		//operators so that no row takes a branch
+		for (int row = 0; row < numRows; row++)
+        {
+			int otherStart = startDates[row];
+			long otherEnd = endDates[row];
+			boolean isOverlap = (startDate <= otherStart & otherStart <= endDate)
+			                  | (startDate <= otherEnd & otherEnd <= endDate)
+			                  | (otherStart <= startDate & startDate <= otherEnd)
+			                  | (otherStart <= endDate & endDate <= otherEnd);
+			int room = roomNumbers[row];
+			occupiedRooms[room >>> 6] |= (isOverlap ? 1L : 0L) << room;
+		}//for row
+		
+		//dead rows have room 0, which is not a room
+		occupiedRooms[0] &= ~1L;
+	}
+	
+	//------------------------------------------------------
+	// compact
+	//
+	// PURPOSE:	drop the dead rows, keeping the live ones in order
+	//------------------------------------------------------
+	private void compact()
+    {
+		int numLive = 0;
+		int row = 0;
+		while (row < numRows)
+        {
+			//a live row starts the recorded rows of its reservation, which are
+			//moved together. A reservation moved to new dates keeps its ID, so
+			//dead rows next to live ones may carry the same ID; only the
+			//recorded rows are live.
+			RowSpan rows = (RowSpan)rowsById.get(reservationIds[row]);
+			if (roomNumbers[row] != 0 && rows != null && rows.firstRow == row)
+            {
+				System.arraycopy(startDates, row, startDates, numLive, rows.numRows);
+				System.arraycopy(endDates, row, endDates, numLive, rows.numRows);
+				System.arraycopy(roomNumbers, row, roomNumbers, numLive, rows.numRows);
+				System.arraycopy(reservationIds, row, reservationIds, numLive, rows.numRows);
+				rows.firstRow = numLive;
+				numLive += rows.numRows;
+				row += rows.numRows;
+			}//if
+			else
+			    row++;
+		}//while
+		
+		numRows = numLive;
+		numDeadRows = 0;
+		if (numRows < startDates.length >> 2 && startDates.length > INITIAL_CAPACITY)
+		    resize(Math.max(INITIAL_CAPACITY, startDates.length >> 1));
+	}
+	
+	//------------------------------------------------------
+	// resize
+	//
+	// PURPOSE:	move the rows into arrays of a new capacity
+	//------------------------------------------------------
+	private void resize(int capacity)
+    {
+		int[] newStartDates = new int[capacity];
+		long[] newEndDates = new long[capacity];
+		int[] newRoomNumbers = new int[capacity];
+		int[] newReservationIds = new int[capacity];
+		System.arraycopy(startDates, 0, newStartDates, 0, numRows);
+		System.arraycopy(endDates, 0, newEndDates, 0, numRows);
+		System.arraycopy(roomNumbers, 0, newRoomNumbers, 0, numRows);
+		System.arraycopy(reservationIds, 0, newReservationIds, 0, numRows);
+		startDates = newStartDates;
+		endDates = newEndDates;
+		roomNumbers = newRoomNumbers;
+		reservationIds = newReservationIds;
+	}
+	
+	//-----------------------------------------
+	// CLASS: Inner class RowSpan
+	//
+	// REMARKS: Where the rows of one reservation are
+	//-----------------------------------------
+
+	private static class RowSpan extends ListItem
+	{
+		private int firstRow;      //first row of the reservation
+		private final int numRows; //one per room
+		
+		//------------------------------------------------------
+		// RowSpan Constructor
+		//
+		// PURPOSE:	Initializes this object
+		// PARAMETERS:
+		//		int: first row of the reservation
+		//		int: number of rows
+		//------------------------------------------------------
+		public RowSpan(int firstRow, int numRows)
+		{
+			this.firstRow = firstRow;
+			this.numRows = numRows;
+		}
+		
+	} //RowSpan
+
+} //PackedStayTable
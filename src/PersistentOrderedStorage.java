@@ -0,0 +1,521 @@
+//-----------------------------------------
+// CLASS: PersistentOrderedStorage
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Keeps the items of an OrderedList in a persistent weight-balanced
+//			tree. Nodes are never changed once built: an insert or removal
+//			copies only the path from the root to the change and shares every
+//			other node with the previous version. A snapshot is therefore just
+//			the current root, taken in O(1), and stays frozen while this
+//			storage keeps changing. Readers on other threads may take
+//			snapshots and walk them while a single writer updates the storage.
+//
+//			Balance follows the weight-balanced tree of Adams with the
+//			parameters (3, 2), so every subtree holds at most three times as
+//			many items as its sibling plus one. Subtree sizes also give
+//			positional access in O(log n).
+//-----------------------------------------
+
+public class PersistentOrderedStorage extends OrderedStorage
+{
+	
+	private static final int DELTA = 3; //maximum weight ratio between siblings
+	private static final int GAMMA = 2; //ratio choosing a single or double rotation
+	
+	//the current version of the tree. Readers only ever see complete versions
+	private volatile Node root;
+	
+	//------------------------------------------------------
+	// PersistentOrderedStorage Constructor
+	//
+	// PURPOSE:	Initializes this object as an empty tree
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	PersistentOrderedStorage() { this(null); }
+	
+	//------------------------------------------------------
+	// PersistentOrderedStorage Constructor
+	//
+	// PURPOSE:	Initializes this object on an existing version of a tree
+	// PARAMETERS:
+	//		Node: root of the version to start from (null for empty)
+	// Returns: None
+	//------------------------------------------------------
+	private PersistentOrderedStorage(Node root) { this.root = root; }
+	
+	//------------------------------------------------------
+	// insert (implements)
+	//
+	// PURPOSE:	insert item in ascending order, after any items equal to it
+	// PARAMETERS:
+	//		OrderedItem: item to insert
+	// Returns: none
+	//------------------------------------------------------
+	public void insert(OrderedItem item) { root = insert(root, item); }
+	
+	//------------------------------------------------------
+	// getAt (implements)
+	//
+	// PURPOSE:	get item at specified index without changing the storage
+	// PARAMETERS:
+	//		int: index of item to get (zero-based indexing)
+	// Returns:
+	//		OrderedItem: the fetched item
+	//------------------------------------------------------
+	public OrderedItem getAt(int index)
+	{
+		Node node = root;
+		
+		//bounds check
+		if ( index < 0 || index >= sizeOf(node) )
+		    ( new OrderedListOutOfBoundsError("PersistentOrderedStorage") ).throwError();
+		
+		//descend by subtree sizes
+		int leftSize = sizeOf(node.left);
+		while ( index != leftSize )
+		{
+			if ( index < leftSize )
+			    node = node.left;
+			else
+			{
+				index -= leftSize + 1;
+				node = node.right;
+			}//else
+			leftSize = sizeOf(node.left);
+		}//while
+		
+		return node.item;
+	}
+	
+	//------------------------------------------------------
+	// removeAt (implements)
+	//
+	// PURPOSE:	remove item at specified index
+	// PARAMETERS:
+	//		int: index at which to remove (zero-based indexing)
+	// Returns:
+	//		OrderedItem: the item that was removed
+	//------------------------------------------------------
+	public OrderedItem removeAt(int index)
+	{
+		OrderedItem removedItem = getAt(index); //also checks the bounds
+		root = removeAt(root, index);
+		return removedItem;
+	}
+	
+	//------------------------------------------------------
+	// getSize (implements)
+	//
+	// PURPOSE:	Returns current number of elements
+	// PARAMETERS: None
+	// Returns: Curent number of elements
+	//------------------------------------------------------
+	public int getSize() { return sizeOf(root); }
+	
+	//------------------------------------------------------
+	// getCursor (implements)
+	//
+	// PURPOSE:	get a forward cursor over the items in ascending order. The
+	//			cursor walks the version current when it was created.
+	// PARAMETERS: none
+	// Returns:
+	//		ListCursor: a cursor positioned before the first item
+	//------------------------------------------------------
+	public ListCursor getCursor() { return cursorOver(root); }
+	
+	//------------------------------------------------------
+	// seek (implements)
+	//
+	// PURPOSE:	get a cursor positioned before the first item that is greater
+	//			than or equal to the given one
+	// PARAMETERS:
+	//		OrderedItem: the item to compare against
+	// Returns:
+	//		ListCursor: a cursor over the items from that point on
+	//------------------------------------------------------
+	public ListCursor seek(OrderedItem item)
+	{
+		//keep the nodes where the walk went left; they are the items still to come
+		TreeCursor cursor = new TreeCursor();
+		Node node = root;
+		while ( node != null )
+		{
+			if ( node.item.compareTo(item) >= 0 )
+			{
+				cursor.push(node);
+				node = node.left;
+			}
+			else
+			    node = node.right;
+		}//while
+		
+		return cursor;
+	}
+	
+	//------------------------------------------------------
+	// removeItem (overrides)
+	//
+	// PURPOSE:	remove the given item itself, not just one equal to it, from
+	//			the current version
+	// PARAMETERS:
+	//		OrderedItem: the item to remove
+	// Returns:
+	//		boolean: true if the item was found and removed
+	//------------------------------------------------------
+	public boolean removeItem(OrderedItem item)
+	{
+		//find the index of the first item not less than the given one
+		Node version = root;
+		int index = 0;
+		Node node = version;
+		while ( node != null )
+		{
+			if ( node.item.compareTo(item) >= 0 )
+			    node = node.left;
+			else
+			{
+				index += sizeOf(node.left) + 1;
+				node = node.right;
+			}//else
+		}//while
+		
+		//items equal to it follow in insertion order; look for this very one
+		for ( ; index < sizeOf(version); index++ )
+		{
+			OrderedItem candidate = itemAt(version, index);
+			if ( candidate == item )
+			{
+				root = removeAt(version, index);
+				return true;
+			}//if
+			if ( candidate.compareTo(item) != 0 )
+			    break;
+		}//for index
+		return false;
+	}
+	
+	//------------------------------------------------------
+	// snapshot (overrides)
+	//
+	// PURPOSE:	get a storage holding the current items, in O(1). The two
+	//			storages share nodes but changes to either are not seen by
+	//			the other.
+	// PARAMETERS: none
+	// Returns:
+	//		OrderedStorage: the snapshot
+	//------------------------------------------------------
+	public OrderedStorage snapshot() { return new PersistentOrderedStorage(root); }
+	
+	//------------------------------------------------------
+	// toString
+	//
+	// PURPOSE:	obtain a String representation of this storage
+	// PARAMETERS: none
+	// Returns: 
+	//		String: String representation of this storage
+	//------------------------------------------------------
+	public String toString()
+	{
+		Node version = root;
+		String returnString = "List containing " + sizeOf(version) + " elements:\n";
+		
+		ListCursor cursor = cursorOver(version);
+		
+		int ii = 0;
+		while ( cursor.hasNext() )
+		{
+			returnString += "    Element " + ii + ":\t" + cursor.next().toString() + "\n";
+			ii++;
+		}//while
+		
+		return returnString;
+	}
+	
+	//------------------------------------------------------
+	// cursorOver
+	//
+	// PURPOSE:	get a cursor positioned before the first item of a version
+	// PARAMETERS:
+	//		Node: root of the version to walk
+	// Returns:
+	//		ListCursor: the cursor
+	//------------------------------------------------------
+	private ListCursor cursorOver(Node version)
+	{
+		TreeCursor cursor = new TreeCursor();
+		for ( Node node = version; node != null; node = node.left )
+		    cursor.push(node);
+		return cursor;
+	}
+	
+	//------------------------------------------------------
+	// insert
+	//
+	// PURPOSE:	build a new version of a subtree with the item added. Ties go
+	//			to the right so the item lands after any equal items.
+	// PARAMETERS:
+	//		Node: root of the subtree (null for empty)
+	//		OrderedItem: item to insert
+	// Returns:
+	//		Node: root of the new subtree
+	//------------------------------------------------------
+	private static Node insert(Node node, OrderedItem item)
+	{
+		if ( node == null )
+		    return new Node(item, null, null);
+		
+		if ( item.compareTo(node.item) < 0 )
+		    return balance(node.item, insert(node.left, item), node.right);
+		else
+		    return balance(node.item, node.left, insert(node.right, item));
+	}
+	
+	//------------------------------------------------------
+	// removeAt
+	//
+	// PURPOSE:	build a new version of a subtree without the item at an index
+	// PARAMETERS:
+	//		Node: root of the subtree, known to hold the index
+	//		int: index of the item within the subtree
+	// Returns:
+	//		Node: root of the new subtree (null if it is now empty)
+	//------------------------------------------------------
+	private static Node removeAt(Node node, int index)
+	{
+		int leftSize = sizeOf(node.left);
+		if ( index < leftSize )
+		    return balance(node.item, removeAt(node.left, index), node.right);
+		else if ( index > leftSize )
+		    return balance(node.item, node.left, removeAt(node.right, index - leftSize - 1));
+		else
+		    return glue(node.left, node.right);
+	}
+	
+	//------------------------------------------------------
+	// glue
+	//
+	// PURPOSE:	join the two children of a removed node. The heavier side
+	//			gives up its nearest item to become the new subtree root.
+	// PARAMETERS:
+	//		Node: left subtree
+	//		Node: right subtree
+	// Returns:
+	//		Node: root of the joined subtree
+	//------------------------------------------------------
+	private static Node glue(Node left, Node right)
+	{
+		if ( left == null )
+		    return right;
+		if ( right == null )
+		    return left;
+		
+		if ( left.size > right.size )
+		{
+			int lastIndex = left.size - 1;
+			return balance(itemAt(left, lastIndex), removeAt(left, lastIndex), right);
+		}//if
+		return balance(itemAt(right, 0), left, removeAt(right, 0));
+	}
+	
+	//------------------------------------------------------
+	// balance
+	//
+	// PURPOSE:	build a node from an item and two subtrees whose weights are
+	//			at most one insert or removal out of balance, rotating if needed
+	// PARAMETERS:
+	//		OrderedItem: item of the new node
+	//		Node: left subtree
+	//		Node: right subtree
+	// Returns:
+	//		Node: root of the balanced subtree
+	//------------------------------------------------------
+	private static Node balance(OrderedItem item, Node left, Node right)
+	{
+		int leftWeight = sizeOf(left) + 1;
+		int rightWeight = sizeOf(right) + 1;
+		
+		if ( rightWeight > DELTA * leftWeight )
+		{
+			//right side too heavy: rotate left
+			if ( sizeOf(right.left) + 1 < GAMMA * (sizeOf(right.right) + 1) )
+			    return new Node(right.item, new Node(item, left, right.left), right.right);
+			Node middle = right.left;
+			return new Node(middle.item, new Node(item, left, middle.left), new Node(right.item, middle.right, right.right));
+		}//if
+		
+		if ( leftWeight > DELTA * rightWeight )
+		{
+			//left side too heavy: rotate right
+			if ( sizeOf(left.right) + 1 < GAMMA * (sizeOf(left.left) + 1) )
+			    return new Node(left.item, left.left, new Node(item, left.right, right));
+			Node middle = left.right;
+			return new Node(middle.item, new Node(left.item, left.left, middle.left), new Node(item, middle.right, right));
+		}//if
+		
+		return new Node(item, left, right);
+	}
+	
+	//------------------------------------------------------
+	// itemAt
+	//
+	// PURPOSE:	get the item at an index of a subtree
+	// PARAMETERS:
+	//		Node: root of the subtree, known to hold the index
+	//		int: index of the item within the subtree
+	// Returns:
+	//		OrderedItem: the item
+	//------------------------------------------------------
+	private static OrderedItem itemAt(Node node, int index)
+	{
+		int leftSize = sizeOf(node.left);
+		while ( index != leftSize )
+		{
+			if ( index < leftSize )
+			    node = node.left;
+			else
+			{
+				index -= leftSize + 1;
+				node = node.right;
+			}//else
+			leftSize = sizeOf(node.left);
+		}//while
+		return node.item;
+	}
+	
+	//------------------------------------------------------
+	// sizeOf
+	//
+	// PURPOSE:	get the number of items in a subtree
+	// PARAMETERS:
+	//		Node: root of the subtree (null for empty)
+	// Returns:
+	//		int: the number of items
+	//------------------------------------------------------
+	private static int sizeOf(Node node) { return node == null ? 0 : node.size; }
+	
+	//-----------------------------------------
+	// CLASS: Inner class Node
+	//
+	// REMARKS: An immutable tree node. All fields are final so a node can be
+	//			handed to another thread through the volatile root safely.
+	//-----------------------------------------
+
+	private static class Node
+	{
+		
+		final OrderedItem item; //the item held by this node
+		final Node left;        //items before this one
+		final Node right;       //items after this one (or equal to it)
+		final int size;         //number of items in this subtree
+		
+		//------------------------------------------------------
+		// Node Constructor
+		//
+		// PURPOSE:	Initializes this object
+		// PARAMETERS:
+		//		OrderedItem: the item to hold
+		//		Node: left subtree
+		//		Node: right subtree
+		//------------------------------------------------------
+		Node(OrderedItem item, Node left, Node right)
+		{
+			this.item = item;
+			this.left = left;
+			this.right = right;
+			size = sizeOf(left) + sizeOf(right) + 1;
+		}
+		
+	} //Node
+	
+	//-----------------------------------------
+	// CLASS: Inner class TreeCursor
+	//
+	// REMARKS: A forward cursor over one version of the tree, using a stack
+	//			of the nodes still to visit. Since that version never changes,
+	//			removals through the cursor (or anywhere else) cannot disturb
+	//			the walk. A removal through the cursor takes the item itself
+	//			out of the current version, however that version has changed
+	//			since the walk began.
+	//-----------------------------------------
+
+	private class TreeCursor extends ListCursor
+	{
+		
+		private Node[] stack;         //nodes whose item and right subtree are still to come
+		private int depth;            //number of nodes on the stack
+		private OrderedItem lastItem; //item last returned by next(), null after a remove()
+		
+		//------------------------------------------------------
+		// TreeCursor Constructor
+		//
+		// PURPOSE:	Initializes this object with an empty stack
+		//------------------------------------------------------
+		public TreeCursor()
+		{
+			stack = new Node[16];
+			depth = 0;
+			lastItem = null;
+		}
+		
+		//------------------------------------------------------
+		// push
+		//
+		// PURPOSE:	push a node onto the stack, growing it as needed
+		//------------------------------------------------------
+		void push(Node node)
+		{
+			if ( depth == stack.length )
+			{
+				Node[] newStack = new Node[depth << 1];
+				System.arraycopy(stack, 0, newStack, 0, depth);
+				stack = newStack;
+			}//if
+			stack[depth++] = node;
+		}
+		
+		//------------------------------------------------------
+		// hasNext (implements)
+		//
+		// PURPOSE:	checks whether there are items left to visit
+		//------------------------------------------------------
+		public boolean hasNext() { return depth > 0; }
+		
+		//------------------------------------------------------
+		// next (implements)
+		//
+		// PURPOSE:	returns the next item in ascending order
+		//------------------------------------------------------
+		public ListItem next()
+		{
+			if ( depth == 0 )
+			    ( new InvalidCursorStateError("PersistentOrderedStorage.TreeCursor.next()") ).throwError();
+			
+			Node node = stack[--depth];
+			stack[depth] = null;
+			for ( Node child = node.right; child != null; child = child.left )
+			    push(child);
+			
+			lastItem = node.item;
+			return node.item;
+		}
+		
+		//------------------------------------------------------
+		// remove (implements)
+		//
+		// PURPOSE:	removes the item last returned by next() from the storage,
+		//			if it is still there
+		//------------------------------------------------------
+		public void remove()
+		{
+			if ( lastItem == null )
+			    ( new InvalidCursorStateError("PersistentOrderedStorage.TreeCursor.remove()") ).throwError();
+			
+			removeItem(lastItem);
+			lastItem = null;
+		}
+		
+	} //TreeCursor
+
+}//PersistentOrderedStorage
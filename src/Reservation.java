@@ -5,8 +5,9 @@
 //
 // REMARKS: A class that contains information about hotel reservations.
 //			This class only extends OrderedItem and not BaseEntity.
-//			This is because, at the moment, a reservation doesn't have any use 
-//			for ID or name data.
+//			This is because a reservation has no use for name data. It does
+//			get a numeric ID, issued in creation order, that cancellations
+//			may name it by.
 //
 //-----------------------------------------
 
@@ -18,6 +19,8 @@ public class Reservation extends OrderedItem
 	private Customer customer; //the customer this reservation is associated with
 	private Hotel hotel; //the hotel this reservation is associated with
 	private SearchableOrderedList roomList; //list of rooms booked by this reservation
+	private int id; //ID number of this reservation
+	private static int nextReservationIdNumber = 1; //reservation ID numbers - incremented each time a Reservation is created
 	
 	//------------------------------------------------------
 	// Reservation Constructor
@@ -37,6 +40,28 @@ public class Reservation extends OrderedItem
 		this.customer = customer;
 		this.hotel = hotel;
 		this.roomList = roomList;
+		id = nextReservationIdNumber;
+		nextReservationIdNumber++;
+	}
+	
+	//------------------------------------------------------
+	// Reservation Constructor
+	//
+	// PURPOSE:	Initializes this object as a reservation moved to new dates.
+	//			It keeps the ID, customer, hotel and rooms of the original.
+	// PARAMETERS: 
+	//		Reservation: the original reservation
+	//		int: new start date
+	//		int: new number of days
+	//------------------------------------------------------
+	Reservation(Reservation original, int startDate, int numDays)
+	{
+		this.startDate = startDate;
+		this.numDays = numDays;
+		customer = original.customer;
+		hotel = original.hotel;
+		roomList = original.roomList;
+		id = original.id;
 	}
 	
 	//------------------------------------------------------
@@ -67,24 +92,15 @@ public class Reservation extends OrderedItem
 	//			data recorded in this reservation. (this method may
 	//			be overloaded for various record combinations)
 	// PARAMETERS:
-	//		String: customer name
+	//		int: customer id
 	//		int: hotel id
 	//		int: start date
 	// Returns:
 	//		boolean: true if all parameters match this reservation's records, false otherwise.
 	//------------------------------------------------------
-	public boolean isRecordMatch(String customerName, int hotelId, int startDate)
+	public boolean isRecordMatch(int customerId, int hotelId, int startDate)
     {
-		boolean isMatch = true;
-		
-		if (!customerName.equals(customer.getName()))
-		    isMatch = false;
-		if (hotelId != hotel.getId())
-		    isMatch = false;
-		if (startDate != this.startDate)
-		    isMatch = false;
-		
-		return isMatch;
+		return customerId == customer.getId() && hotelId == hotel.getId() && startDate == this.startDate;
 	}
 	
 	//------------------------------------------------------
@@ -105,8 +121,20 @@ public class Reservation extends OrderedItem
 		
 		if (hotelId != hotel.getId())
 		    isMatch = false;
-		if (!roomList.hasKey(""+roomNumber))
-		    isMatch = false;
+		else
+        {
+			//compare room numbers directly rather than building a String key
+			boolean hasRoom = false;
+			ListCursor cursor = roomList.getCursor();
+			while (!hasRoom && cursor.hasNext())
+			{
+				ListItem item = cursor.next();
+				assert item instanceof Room;
+				if (((Room)item).getId() == roomNumber)
+				    hasRoom = true;
+			}//while
+			isMatch = hasRoom;
+		}//else
 		
 		return isMatch;
 	}
@@ -118,12 +146,23 @@ public class Reservation extends OrderedItem
 	//			data recorded in this reservation. (this method may
 	//			be overloaded for various record combinations)
 	// PARAMETERS:
-	//		String: customer name
+	//		int: customer id
 	// Returns:
 	//		boolean: true if all parameters match this reservation's records, false otherwise.
 	//------------------------------------------------------
-	public boolean isRecordMatch(String customerName){		
-		return customerName.equals(customer.getName());
+	public boolean isRecordMatch(int customerId){		
+		return customerId == customer.getId();
+	}
+	
+	//------------------------------------------------------
+	// getId
+	//
+	// PURPOSE:	returns the ID of this reservation
+	// Returns:
+	//		int: the ID of this reservation
+	//------------------------------------------------------
+	public int getId(){
+		return id;
 	}
 	
 	//------------------------------------------------------
@@ -148,6 +187,39 @@ public class Reservation extends OrderedItem
 		return numDays;
 	}
 	
+	//------------------------------------------------------
+	// getCustomer
+	//
+	// PURPOSE:	returns the customer of this reservation
+	// Returns:
+	//		Customer: the customer who made this reservation
+	//------------------------------------------------------
+	public Customer getCustomer(){
+		return customer;
+	}
+	
+	//------------------------------------------------------
+	// getHotel
+	//
+	// PURPOSE:	returns the hotel of this reservation
+	// Returns:
+	//		Hotel: the hotel this reservation is for
+	//------------------------------------------------------
+	public Hotel getHotel(){
+		return hotel;
+	}
+	
+	//------------------------------------------------------
+	// getRoomCursor
+	//
+	// PURPOSE:	returns a cursor over the rooms booked by this reservation
+	// Returns:
+	//		ListCursor: a cursor over the Rooms, by room number
+	//------------------------------------------------------
+	public ListCursor getRoomCursor(){
+		return roomList.getCursor();
+	}
+	
 	//------------------------------------------------------
 	// getCustomerName
 	//
@@ -172,13 +244,14 @@ public class Reservation extends OrderedItem
     {
 		int totalCost = 0;
 		
-		//iterate over the rooms of this reservation and sum their individual rates
-		for (int iRoom = 0; iRoom < roomList.getSize(); iRoom++)
+		//walk over the rooms of this reservation and sum their individual rates
+		ListCursor cursor = roomList.getCursor();
+		while (cursor.hasNext())
 		{
-			SearchableOrderedItem item = roomList.getAt(iRoom);
+			ListItem item = cursor.next();
 			assert item instanceof Room;
 			totalCost += ((Room)item).getRate();
-		}//for iRoom
+		}//while
 		
 		//return the total costs of the rooms multiplied by the duration of the reservation
 		return totalCost * numDays;
@@ -10,8 +10,34 @@
 public class ReservationDatabase
 {
 
-	//the list of Reservations
-	private static OrderedList reservationList = new OrderedList();
+	//the list of Reservations, ordered by start date. The list is persistent so
+	//that a snapshot of it can be taken in constant time and read while
+	//reservations keep being added and cancelled.
+	private static OrderedList reservationList = new OrderedList(new PersistentOrderedStorage());
+	
+	//per-hotel indexes of the same Reservations, keyed by hotel ID
+	private static IntKeyMap indexByHotel = new IntKeyMap();
+	
+	//per-customer lists of the same Reservations ordered by start date, keyed by
+	//customer ID, so a customer's history costs only as much as their bookings.
+	//The lists are persistent so that they can be handed out as snapshots.
+	private static IntKeyMap reservationsByCustomer = new IntKeyMap();
+	
+	//the same Reservations keyed by (customer ID, hotel ID, start date), the
+	//key cancellations name them by
+	private static ReservationKeyIndex reservationsByKey = new ReservationKeyIndex();
+	
+	//the same Reservations by ID. IDs are issued densely from 1, so the table is
+	//a plain array indexed by ID, with null where a reservation has gone.
+	private static final int INITIAL_ID_CAPACITY = 64; //slots in the ID table to start with
+	private static Reservation[] reservationsById = new Reservation[INITIAL_ID_CAPACITY];
+	
+	//the rolling booking horizon. While it is set, bookings may not start
+	//before the current day, and reservations that have ended are dropped as
+	//the day advances. The hotels' calendars then track only the horizon's
+	//days, in a ring reused as the day moves on. No horizon is set by default.
+	private static int horizonDays = 0; //length of the horizon, 0 if none is set
+	private static int currentDay = 0;  //first day of the horizon
 	
 	//------------------------------------------------------
 	// addReservation
@@ -23,6 +49,22 @@ public class ReservationDatabase
 	public static void addReservation(Reservation reservation){
 		//note: it is assumed we can add "duplicate" reservations to the list.
 		reservationList.insert(reservation);
+		
+		getHotelIndex(reservation.getHotel()).addReservation(reservation);
+		getCustomerReservations(reservation.getCustomer()).insert(reservation);
+		reservationsByKey.put(reservation);
+		
+		int id = reservation.getId();
+		if (id >= reservationsById.length)
+        {
+			int newLength = reservationsById.length;
+			while (newLength <= id)
+			    newLength <<= 1;
+			Reservation[] newReservationsById = new Reservation[newLength];
+			System.arraycopy(reservationsById, 0, newReservationsById, 0, reservationsById.length);
+			reservationsById = newReservationsById;
+		}//if
+		reservationsById[id] = reservation;
 	}
 	
 	//------------------------------------------------------
@@ -31,35 +73,111 @@ public class ReservationDatabase
 	// PURPOSE:	remove a Reservation from this database. The particular 
 	//			reservation(s) is(are) indentified using the given parameters.
 	// PARAMETERS: 
-	//		String: customer name
+	//		int: customer id
 	//		int: hotel id
 	//		int: start date
 	// Returns: 
 	//		SimpleLinkedList: the list of removed reservations
 	//------------------------------------------------------
-	public static SimpleLinkedList removeReservation(String customerName, int hotelId, int startDate){
+	public static SimpleLinkedList removeReservation(int customerId, int hotelId, int startDate){
 		//list to return
 		SimpleLinkedList removedReservations = new SimpleLinkedList();
 		
-		int index = 0;
-		while (index < reservationList.getSize())
+		//the key index holds exactly the matching reservations
+		ListCursor cursor = reservationsByKey.getAll(customerId, hotelId, startDate).getCursor();
+		while (cursor.hasNext())
         {
-			//get each reservation from the list and see if
-			//we have a match
-			OrderedItem item = reservationList.getAt(index);
+			ListItem item = cursor.next();
 			assert item instanceof Reservation;
 			Reservation reservation = (Reservation)item;
 			
-			//remove and return it if it matches the record criteria
-			if (reservation.isRecordMatch(customerName, hotelId, startDate)){
-				removedReservations.insert(reservationList.removeAt(index));
-			}//if
-			else index++;
+			reservationList.removeItem(reservation);
+			unindexReservation(reservation);
+			removedReservations.insert(reservation);
 		}//while
 		
 		return removedReservations;
 	}
 	
+	//------------------------------------------------------
+	// removeReservationById
+	//
+	// PURPOSE:	remove the Reservation with the given ID from this database
+	// PARAMETERS: 
+	//		int: reservation ID
+	// Returns: 
+	//		Reservation: the removed reservation, or null if there is none with that ID
+	//------------------------------------------------------
+	public static Reservation removeReservationById(int reservationId){
+		Reservation reservation = getReservationById(reservationId);
+		if (reservation != null)
+        {
+			reservationList.removeItem(reservation);
+			unindexReservation(reservation);
+		}//if
+		return reservation;
+	}
+	
+	//------------------------------------------------------
+	// modifyReservationById
+	//
+	// PURPOSE:	move the Reservation with the given ID to new dates, keeping
+	//			its rooms. It is only moved if none of its rooms is booked by
+	//			another reservation on the new dates.
+	// PARAMETERS: 
+	//		int: reservation ID
+	//		int: new start date
+	//		int: new duration
+	// Returns: 
+	//		Reservation: the moved reservation, which keeps the ID, or null if
+	//					 there is none with that ID or its rooms are not free
+	//------------------------------------------------------
+	public static Reservation modifyReservationById(int reservationId, int startDate, int duration){
+		Reservation reservation = getReservationById(reservationId);
+		if (reservation == null)
+		    return null;
+		
+		//check the reservations overlapping the new dates, other than this one,
+		//for any of its rooms
+		int hotelId = reservation.getHotel().getId();
+		ListCursor overlapCursor = getReservationsOverlapping(hotelId, startDate, duration).getCursor();
+		while (overlapCursor.hasNext())
+        {
+			Reservation other = (Reservation)overlapCursor.next();
+			if (other == reservation)
+			    continue;
+			
+			ListCursor roomCursor = reservation.getRoomCursor();
+			while (roomCursor.hasNext())
+            {
+				if (other.isRecordMatch(hotelId, ((Room)roomCursor.next()).getId()))
+				    return null;
+			}//while
+		}//while
+		
+		//the indexes are keyed by date, so take the reservation out and put the
+		//moved one in its place
+		removeReservationById(reservationId);
+		Reservation modifiedReservation = new Reservation(reservation, startDate, duration);
+		addReservation(modifiedReservation);
+		return modifiedReservation;
+	}
+	
+	//------------------------------------------------------
+	// getReservationById
+	//
+	// PURPOSE:	get the Reservation with the given ID
+	// PARAMETERS: 
+	//		int: reservation ID
+	// Returns: 
+	//		Reservation: the reservation, or null if there is none with that ID
+	//------------------------------------------------------
+	public static Reservation getReservationById(int reservationId){
+		if (reservationId < 0 || reservationId >= reservationsById.length)
+		    return null;
+		return reservationsById[reservationId];
+	}
+	
 	//------------------------------------------------------
 	// getReservationsByRoomNumber
 	//
@@ -74,21 +192,196 @@ public class ReservationDatabase
 		//list to return
 		OrderedList reservationForRoom = new OrderedList();
 		
-		//iterate over each reservation and see if the room is reserved
-		for (int ii = 0; ii < reservationList.getSize(); ii++)
-		{
-			OrderedItem item = reservationList.getAt(ii);
-			assert item instanceof Reservation;
-			
-			//see if this reservation includes the given room.
-			//if so, add to return list
-			if (((Reservation)item).isRecordMatch(hotelId, roomNumber))
-			    reservationForRoom.insert(item);
-		}//for ii
+		//the room's interval tree holds its reservations in start date order
+		ReservationIntervalTree roomTree = getRoomTree(hotelId, roomNumber);
+		if (roomTree != null)
+		    roomTree.addAllTo(reservationForRoom);
 		
 		return reservationForRoom;
 	}
 	
+	//------------------------------------------------------
+	// getReservationsOverlapping
+	//
+	// PURPOSE:	get the reservations of a hotel that overlap the given dates
+	// PARAMETERS: 
+	//		int: ID of the hotel
+	//		int: start date
+	//		int: duration
+	// Returns:
+	//		OrderedList: the overlapping reservations, by start date
+	//------------------------------------------------------
+	public static OrderedList getReservationsOverlapping(int hotelId, int startDate, int duration){
+		//list to return
+		OrderedList overlappingReservations = new OrderedList();
+		
+		HotelReservationIndex hotelIndex = (HotelReservationIndex)indexByHotel.get(hotelId);
+		if (hotelIndex != null)
+		    hotelIndex.addOverlappingTo(overlappingReservations, startDate, duration);
+		
+		return overlappingReservations;
+	}
+	
+	//------------------------------------------------------
+	// getNumOccupiedRooms
+	//
+	// PURPOSE:	count the rooms of a hotel that some reservation overlapping
+	//			the given dates has booked, working in the caller's bitset
+	// PARAMETERS: 
+	//		int: ID of the hotel
+	//		int: start date
+	//		int: duration
+	//		long[]: bitset to work in, of at least (number of rooms / 64) + 1 longs
+	// Returns:
+	//		int: the number of rooms
+	//------------------------------------------------------
+	public static int getNumOccupiedRooms(int hotelId, int startDate, int duration, long[] occupiedRooms){
+		HotelReservationIndex hotelIndex = (HotelReservationIndex)indexByHotel.get(hotelId);
+		if (hotelIndex == null)
+		    return 0;
+		return hotelIndex.getNumOccupiedRooms(startDate, duration, occupiedRooms);
+	}
+	
+	//------------------------------------------------------
+	// getArrivals
+	//
+	// PURPOSE:	get the reservations of a hotel starting on a day
+	// PARAMETERS: 
+	//		int: ID of the hotel
+	//		int: the day
+	// Returns:
+	//		OrderedList: the arriving reservations
+	//------------------------------------------------------
+	public static OrderedList getArrivals(int hotelId, int day){
+		OrderedList arrivals = new OrderedList();
+		HotelReservationIndex hotelIndex = (HotelReservationIndex)indexByHotel.get(hotelId);
+		if (hotelIndex != null)
+		    hotelIndex.getManifest().addArrivalsTo(arrivals, day);
+		return arrivals;
+	}
+	
+	//------------------------------------------------------
+	// getDepartures
+	//
+	// PURPOSE:	get the reservations of a hotel checking out on a day, the
+	//			day after their last night
+	// PARAMETERS: 
+	//		int: ID of the hotel
+	//		int: the day
+	// Returns:
+	//		OrderedList: the departing reservations, by start date
+	//------------------------------------------------------
+	public static OrderedList getDepartures(int hotelId, int day){
+		OrderedList departures = new OrderedList();
+		HotelReservationIndex hotelIndex = (HotelReservationIndex)indexByHotel.get(hotelId);
+		if (hotelIndex != null)
+		    hotelIndex.getManifest().addDeparturesTo(departures, day);
+		return departures;
+	}
+	
+	//------------------------------------------------------
+	// getInHouse
+	//
+	// PURPOSE:	get the reservations of a hotel staying on a day
+	// PARAMETERS: 
+	//		int: ID of the hotel
+	//		int: the day
+	// Returns:
+	//		OrderedList: the reservations in-house, by start date
+	//------------------------------------------------------
+	public static OrderedList getInHouse(int hotelId, int day){
+		OrderedList inHouse = new OrderedList();
+		HotelReservationIndex hotelIndex = (HotelReservationIndex)indexByHotel.get(hotelId);
+		if (hotelIndex != null)
+		    hotelIndex.getManifest().addInHouseTo(inHouse, day);
+		return inHouse;
+	}
+	
+	//------------------------------------------------------
+	// getFreeRooms
+	//
+	// PURPOSE:	get the rooms of a hotel that no reservation overlaps on the given dates
+	// PARAMETERS: 
+	//		int: ID of the hotel
+	//		int: start date
+	//		int: duration
+	// Returns:
+	//		long[]: bitset of free rooms, bit n of word n / 64 for room n
+	//------------------------------------------------------
+	public static long[] getFreeRooms(int hotelId, int startDate, int duration){
+		return getHotelIndex(HotelDatabase.getHotelById(hotelId)).getFreeRooms(startDate, duration);
+	}
+	
+	//------------------------------------------------------
+	// getFreeRooms
+	//
+	// PURPOSE:	fill a bitset with the rooms of a hotel that no reservation
+	//			overlaps on the given dates
+	// PARAMETERS: 
+	//		int: ID of the hotel
+	//		int: start date
+	//		int: duration
+	//		long[]: the bitset to fill, bit n of word n / 64 for room n; it
+	//				must have a word for every 64 rooms counting room 0
+	// Returns: none
+	//------------------------------------------------------
+	public static void getFreeRooms(int hotelId, int startDate, int duration, long[] freeRooms){
+		getHotelIndex(HotelDatabase.getHotelById(hotelId)).getFreeRooms(startDate, duration, freeRooms);
+	}
+	
+	//------------------------------------------------------
+	// getFreeRoomBound
+	//
+	// PURPOSE:	get an upper bound on the rooms of a hotel free for the whole
+	//			of the given dates, found without looking at single rooms
+	// PARAMETERS: 
+	//		int: ID of the hotel
+	//		int: start date
+	//		int: duration
+	//		RoomType: type of the rooms counted, or null for every room
+	// Returns:
+	//		int: no more rooms than this are free
+	//------------------------------------------------------
+	public static int getFreeRoomBound(int hotelId, int startDate, int duration, RoomType roomType){
+		return getHotelIndex(HotelDatabase.getHotelById(hotelId)).getFreeRoomBound(startDate, duration, roomType);
+	}
+	
+	//------------------------------------------------------
+	// getFirstFreeDate
+	//
+	// PURPOSE:	find the first start date, on or after a date, for which a room
+	//			has no reservation overlapping the given number of days
+	// PARAMETERS: 
+	//		int: ID of the hotel
+	//		int: room number (one based indexing)
+	//		int: earliest start date
+	//		int: duration (at least 1)
+	// Returns:
+	//		long: the start date, or RoomOccupancySet.NO_DATE if there is none
+	//------------------------------------------------------
+	public static long getFirstFreeDate(int hotelId, int roomNumber, int fromDate, int duration){
+		return getHotelIndex(HotelDatabase.getHotelById(hotelId)).getFirstFreeDate(roomNumber, fromDate, duration);
+	}
+	
+	//------------------------------------------------------
+	// getReservationsByCustomerId
+	//
+	// PURPOSE:	get a list of reservations for a certain customer
+	// PARAMETERS: 
+	//		int: customer id
+	// Returns:
+	//		OrderedList: the list of reservations for this customer, by start date
+	//------------------------------------------------------
+	public static OrderedList getReservationsByCustomerId(int customerId)
+    {
+		OrderedList reservationsForCustomer = (OrderedList)reservationsByCustomer.get(customerId);
+		if (reservationsForCustomer == null)
+		    return new OrderedList();
+		
+		//hand out a snapshot so the caller cannot change the index
+		return reservationsForCustomer.getSnapshot();
+	}
+	
 	//------------------------------------------------------
 	// getReservationsByCustomerName
 	//
@@ -96,25 +389,196 @@ public class ReservationDatabase
 	// PARAMETERS: 
 	//		String: customer name
 	// Returns:
-	//		OrderedList: the list of reservations for this room
+	//		OrderedList: the list of reservations for this customer, by start date
 	//------------------------------------------------------
 	public static OrderedList getReservationsByCustomerName(String customerName)
     {
-		//list to return
-		OrderedList reservationsForCustomer = new OrderedList();
+		Customer customer = CustomerDatabase.getCustomerByName(customerName);
+		if (customer == null)
+		    return new OrderedList();
+		return getReservationsByCustomerId(customer.getId());
+	}
+	
+	//------------------------------------------------------
+	// setBookingHorizon
+	//
+	// PURPOSE:	start keeping a rolling booking horizon. Must be called before
+	//			any reservation is added.
+	// PARAMETERS: 
+	//		int: the current day
+	//		int: number of days in the horizon (1..OccupancyCalendar.MAX_DAYS)
+	// Returns: none
+	//------------------------------------------------------
+	public static void setBookingHorizon(int today, int numDays){
+		if (numDays < 1 || numDays > OccupancyCalendar.MAX_DAYS)
+			(new BookingHorizonError("setBookingHorizon", "horizon of " + numDays + " days is out of range")).throwError();
+		if (indexByHotel.getSize() != 0)
+			(new BookingHorizonError("setBookingHorizon", "reservations have already been made")).throwError();
 		
-		//iterate over each reservation and see which are for the given customer
-		for (int ii = 0; ii < reservationList.getSize(); ii++)
-		{
-			OrderedItem item = reservationList.getAt(ii);
-			assert item instanceof Reservation;
-			
-			//see if this reservation includes the given customer.
-			//if so, add to return list
-			if (((Reservation)item).isRecordMatch(customerName)) reservationsForCustomer.insert(item);
-		}//for ii
+		horizonDays = numDays;
+		currentDay = today;
+	}
+	
+	//------------------------------------------------------
+	// advanceToDay
+	//
+	// PURPOSE:	move the booking horizon forward to a new current day. Every
+	//			reservation that ended before that day is dropped, and the
+	//			hotels' calendars recycle the days left behind.
+	// PARAMETERS: 
+	//		int: the new current day (not before the current one)
+	// Returns: none
+	//------------------------------------------------------
+	public static void advanceToDay(int today){
+		if (horizonDays == 0)
+			(new BookingHorizonError("advanceToDay", "no booking horizon is set")).throwError();
+		if (today < currentDay)
+			(new BookingHorizonError("advanceToDay", "day " + today + " is before the current day " + currentDay)).throwError();
 		
-		return reservationsForCustomer;
+		//a stay of no days ends before it starts, so even a reservation
+		//starting on or after the new day may have ended; check every one
+		ListCursor cursor = reservationList.getCursor();
+		while (cursor.hasNext())
+        {
+			Reservation reservation = (Reservation)cursor.next();
+			if ((long)reservation.getStartDate() + reservation.getDuration() - 1 < today)
+            {
+				cursor.remove();
+				unindexReservation(reservation);
+			}//if
+		}//while
+		
+		//then move every hotel's calendar along
+		ListCursor hotelCursor = HotelDatabase.getSnapshot().getCursor();
+		while (hotelCursor.hasNext())
+        {
+			HotelReservationIndex hotelIndex = (HotelReservationIndex)indexByHotel.get(((Hotel)hotelCursor.next()).getId());
+			if (hotelIndex != null)
+			    hotelIndex.advanceTo(today);
+		}//while
+		
+		currentDay = today;
 	}
+	
+	//------------------------------------------------------
+	// hasBookingHorizon
+	//
+	// PURPOSE:	checks whether a rolling booking horizon is being kept
+	// Returns:
+	//		boolean: true if setBookingHorizon has been called
+	//------------------------------------------------------
+	public static boolean hasBookingHorizon(){
+		return horizonDays != 0;
+	}
+	
+	//------------------------------------------------------
+	// isBeforeHorizon
+	//
+	// PURPOSE:	checks whether a start date falls before the booking horizon
+	// PARAMETERS: 
+	//		int: the start date
+	// Returns:
+	//		boolean: true if a horizon is set and the date is before the current day
+	//------------------------------------------------------
+	public static boolean isBeforeHorizon(int startDate){
+		return horizonDays != 0 && startDate < currentDay;
+	}
+	
+	//------------------------------------------------------
+	// getCurrentDay
+	//
+	// PURPOSE:	returns the first day of the booking horizon
+	// Returns:
+	//		int: the current day
+	//------------------------------------------------------
+	public static int getCurrentDay(){
+		return currentDay;
+	}
+	
+	//------------------------------------------------------
+	// getHotelIndex
+	//
+	// PURPOSE:	get the reservation index of a hotel, creating it if needed
+	// PARAMETERS: 
+	//		Hotel: the hotel
+	// Returns:
+	//		HotelReservationIndex: the hotel's index
+	//------------------------------------------------------
+	private static HotelReservationIndex getHotelIndex(Hotel hotel){
+		HotelReservationIndex hotelIndex = (HotelReservationIndex)indexByHotel.get(hotel.getId());
+		if (hotelIndex == null)
+        {
+			if (horizonDays == 0)
+			    hotelIndex = new HotelReservationIndex(hotel, 0, OccupancyCalendar.MAX_DAYS);
+			else
+			    hotelIndex = new HotelReservationIndex(hotel, currentDay, horizonDays);
+			indexByHotel.put(hotel.getId(), hotelIndex);
+		}//if
+		return hotelIndex;
+	}
+	
+	//------------------------------------------------------
+	// getCustomerReservations
+	//
+	// PURPOSE:	get the reservation list of a customer, creating it if needed
+	// PARAMETERS: 
+	//		Customer: the customer
+	// Returns:
+	//		OrderedList: the customer's reservations, by start date
+	//------------------------------------------------------
+	private static OrderedList getCustomerReservations(Customer customer){
+		OrderedList customerReservations = (OrderedList)reservationsByCustomer.get(customer.getId());
+		if (customerReservations == null)
+        {
+			customerReservations = new OrderedList(new PersistentOrderedStorage());
+			reservationsByCustomer.put(customer.getId(), customerReservations);
+		}//if
+		return customerReservations;
+	}
+	
+	//------------------------------------------------------
+	// unindexReservation
+	//
+	// PURPOSE:	drop a reservation, already taken off the reservation list,
+	//			from the per-hotel, per-customer, key and ID indexes
+	// PARAMETERS: 
+	//		Reservation: the reservation to drop
+	// Returns: none
+	//------------------------------------------------------
+	private static void unindexReservation(Reservation reservation){
+		((HotelReservationIndex)indexByHotel.get(reservation.getHotel().getId())).removeReservation(reservation);
+		
+		getCustomerReservations(reservation.getCustomer()).removeItem(reservation);
+		reservationsByKey.remove(reservation);
+		reservationsById[reservation.getId()] = null;
+	}
+	
+	//------------------------------------------------------
+	// getRoomTree
+	//
+	// PURPOSE:	get the interval tree of reservations for a room
+	// PARAMETERS: 
+	//		int: ID of the hotel
+	//		int: room number (one based indexing)
+	// Returns:
+	//		ReservationIntervalTree: the tree, or null if the room was never booked
+	//------------------------------------------------------
+	private static ReservationIntervalTree getRoomTree(int hotelId, int roomNumber){
+		HotelReservationIndex hotelIndex = (HotelReservationIndex)indexByHotel.get(hotelId);
+		if (hotelIndex == null)
+		    return null;
+		return hotelIndex.getRoomTree(roomNumber);
+	}
+	
+	//------------------------------------------------------
+	// getSnapshot
+	//
+	// PURPOSE:	get a frozen copy of the reservation list that later changes
+	//			to this database do not affect
+	// PARAMETERS: none
+	// Returns:
+	//		OrderedList: the reservations at the time of the call, by start date
+	//------------------------------------------------------
+	public static OrderedList getSnapshot() { return reservationList.getSnapshot(); }
 
 }//ReservationDatabase
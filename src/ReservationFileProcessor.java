@@ -21,6 +21,9 @@ public class ReservationFileProcessor
 	//class must exist if we are to instantiate Request objects. 
 	private static final ReservationFileProcessor self = new ReservationFileProcessor();
 	
+	//maximum number of parsed requests waiting to be processed
+	private static final int REQUEST_QUEUE_CAPACITY = 1024;
+	
 	//------------------------------------------------------
 	// processReservationFile 
 	//
@@ -35,64 +38,49 @@ public class ReservationFileProcessor
     {
 		System.out.println("Processing Reservations file...\nFile name: " + filename);
 		
-		//create the queue of ReservationRequests that will be processed after the
-		//input file has been read
-		SimpleQueue reservationQueue = new SimpleQueue();		
-		
-		//open the file and start reading line by line
+		//create the bounded queue of Requests. A reader thread parses the input
+		//file into it while this thread processes the requests in file order,
+		//so at most REQUEST_QUEUE_CAPACITY requests are held in memory at once.
+		BoundedQueue reservationQueue = new BoundedQueue(REQUEST_QUEUE_CAPACITY);
+		
+		//start reading the file. Note the special "new" syntax
+		//for instantiating an inner class from a static context. The reader
+		//is a daemon so that it never keeps the program alive on its own.
+		RequestReader reader = self.new RequestReader(filename, reservationQueue);
+		reader.setDaemon(true);
+		reader.start();
+        
+        //process each request in turn as the reader makes it available.
+        //take() returns null once the reader is done and the queue is drained.
 		try
-        {
-            FileInputStream fileInStream = new FileInputStream(filename);
-            BufferedReader reader = new BufferedReader(new InputStreamReader(fileInStream));
-            
-            //Read until end of file
-            String line1 = reader.readLine();
-            while (line1 != null)
-            {
-				//ignore extra blank lines
-				if (line1.trim().length() == 0)
-				{
-					line1 = reader.readLine();
-					continue; 
-				}//if
+		{
+	        ListItem item = reservationQueue.take();
+	        while (item != null)
+	        {
+				//a simple assertion of the underlying type will suffice.
+				assert item instanceof Request;
+				Request request = (Request)item;
 				
-				//get the next line of reservation data
-				String line2 = reader.readLine();
+				//call appropriate request method based on the request type
+				if (request.getRequestType() == RequestType.RESERVATION) processReservationRequest(request);
+				else if (request.getRequestType() == RequestType.CANCELLATION) processCancellationRequest(request);
+				else if (request.getRequestType() == RequestType.MODIFICATION) processModificationRequest(request);
+				else if (request.getRequestType() == RequestType.DAY_ADVANCE) processDayAdvanceRequest(request);
+				else{assert 1==0;}//would catch invalid input but we can assume input format is valid			
 				
-				//store the two lines of data as a Request in
-				//the reservation queue. Note the special "new" syntax
-				//for instantiating an inner class from a static context.
-				reservationQueue.enqueue(self.new Request(line1, line2));				
-                
-                //set the "line" variable for next loop iteration
-                line1 = reader.readLine();
-            }//while         
-         
-			//close the file now that we are done reading
-			reader.close();
-			fileInStream.close();
-        }//try 
-        catch (Exception ex)
-        {
-            System.out.println(ex);
-            System.exit(1);
-        }//catch
-        
-        //At this point we have read-in the reservation file and stored each
-        //request in a queue. We will now process each request in turn.
-        while (!reservationQueue.isEmpty())
-        {
-			//get the next Request from the queue. A simple
-			//assertion of the underlying type will suffice.
-			ListItem item = reservationQueue.dequeue();
-			assert item instanceof Request;
-			Request request = (Request)item;
-			
-			//call appropriate request method based on the request type
-			if (request.getRequestType() == RequestType.RESERVATION) processReservationRequest(request);
-			else if (request.getRequestType() == RequestType.CANCELLATION) processCancellationRequest(request);
-			else{assert 1==0;}//would catch invalid input but we can assume input format is valid			
-		}//while
+				item = reservationQueue.take();
+			}//while
+		}//try
+		finally
+		{
+			//if processing stopped early, a reader waiting for room gives up
+			reservationQueue.abandon();
+		}//finally
+		
+		//the requests read before the reader stopped have been processed; now
+		//report what stopped it, if anything
+		if (reservationQueue.getFailure() != null)
+			(new ReservationFileReadError(filename, reservationQueue.getFailure())).throwError();
         	
 	}//processReservationFile
 	
@@ -133,6 +121,20 @@ public class ReservationFileProcessor
 			return;
 		}//if
 		
+		//reject a start date that has already passed the booking horizon
+		if (ReservationDatabase.isBeforeHorizon(request.getStartDate())){
+			(new StartBeforeHorizonRequestError(request.getRequestLines(), request.getStartDate(), ReservationDatabase.getCurrentDay())).throwError();
+			return;
+		}//if
+		
+		//reject, before any room level work, a request that cannot be met because
+		//some day of it has fewer free rooms than requested. Both cases below would
+		//end in the same error.
+		if (ReservationDatabase.getFreeRoomBound(request.getHotelId(), request.getStartDate(), request.getDuration(), null) < request.getNumberOfRooms()){
+			(new InsufficentAvailableRoomsRequestError(request.getRequestLines())).throwError();
+			return;
+		}//if
+		
 		//**From here the program deals with the single room reservation case separately
 		//from the the multi-room reservation case
 		
@@ -151,13 +153,16 @@ public class ReservationFileProcessor
 	// Returns: none
 	//------------------------------------------------------
 	private static void processCustomer(Request request){
-		//if customer does not exist then we add them to the database
-		if(!CustomerDatabase.doesCustomerExist(request.getCustomerName()))
-			CustomerDatabase.addCustomer(new Customer(request.getCustomerName()));
+		//if customer does not exist then we add them to the database. This is
+		//the only place a customer name is given an ID.
+		if(!CustomerDatabase.doesCustomerExist(request.getCustomerId())){
+			int customerId = request.internCustomerName();
+			CustomerDatabase.addCustomer(new Customer(customerId, CustomerDatabase.getCustomerName(customerId)));
+		}//if
 		
 		//update the customer's room preference if necessary
 		if (request.getPreferredRoomType() != RoomType.UNSPECIFIED)
-			CustomerDatabase.setCustomerRoomPreference(request.getCustomerName(), request.getPreferredRoomType());
+			CustomerDatabase.setCustomerRoomPreference(request.getCustomerId(), request.getPreferredRoomType());
 	}
 
 	//------------------------------------------------------
@@ -175,37 +180,31 @@ public class ReservationFileProcessor
 		
 		//**It is assumed that the customer associated with this request is already setup.
 		
-		//see if the customer has a room preference. if so, get a list of 
-		//available rooms of that type, else, get list of all available rooms
-		RoomType roomPreference = CustomerDatabase.getCustomerRoomPreference(request.getCustomerName());
+		//see if the customer has a room preference. if so, look for the cheapest
+		//available room of that type, else, for the cheapest of all available rooms.
+		//The hotel's rooms are walked in rate order, so only the occupied rooms
+		//cheaper than the one found are looked at.
+		RoomType roomPreference = CustomerDatabase.getCustomerRoomPreference(request.getCustomerId());
 		assert roomPreference != null; //check assumption
-		OrderedList availableRooms; //available rooms
+		SimpleLinkedList cheapestRooms = null; //the cheapest available room, if any
 		if (roomPreference != RoomType.UNSPECIFIED){
-			availableRooms = DatabaseLookup.getAvailableRoomsByType(request.getHotelId(), request.getStartDate(), request.getDuration(), roomPreference);
-			
-			//if no rooms of the preferred type are available then get list of all available rooms
-			//at the requested hotel for the date range.
-			if (availableRooms.getSize() == 0)
-				availableRooms = DatabaseLookup.getAvailableRooms(request.getHotelId(), request.getStartDate(), request.getDuration());
+			//skip the lookup when some day has no room of the preferred type free
+			if (ReservationDatabase.getFreeRoomBound(request.getHotelId(), request.getStartDate(), request.getDuration(), roomPreference) > 0)
+				cheapestRooms = DatabaseLookup.getCheapestAvailableRooms(request.getHotelId(), request.getStartDate(), request.getDuration(), roomPreference, 1);
 		}//if
-		else{
-			//if customer has no room preference then get a list of all available rooms in specified
-			//hotel for the given date range
-			availableRooms = DatabaseLookup.getAvailableRooms(request.getHotelId(), request.getStartDate(), request.getDuration());
-		}//else
 		
-		//**At this point we have a list of appropriate available rooms (which could be empty). We must now
-		//pick the lowest cost room and create the reservation
+		//if the customer has no room preference, or no rooms of the preferred type are
+		//available, then look among all available rooms at the requested hotel
+		if (cheapestRooms == null || cheapestRooms.getSize() == 0)
+			cheapestRooms = DatabaseLookup.getCheapestAvailableRooms(request.getHotelId(), request.getStartDate(), request.getDuration(), null, 1);
+		
+		//**At this point we have the lowest cost appropriate room, if any is available.
 		
 		//first check if any rooms are actually available. if not, issue an error
-		if (availableRooms.getSize() == 0) (new InsufficentAvailableRoomsRequestError(request.getRequestLines())).throwError();
+		if (cheapestRooms.getSize() == 0) (new InsufficentAvailableRoomsRequestError(request.getRequestLines())).throwError();
 		else{
-			//otherwise we are good to create the reservation.
-			//start by ordering the list of available rooms by increasing rate.			
-			SimpleLinkedList roomsByRate = orderRoomsByRate(availableRooms);
-			
-			//then create the reservation room list
-			ListItem item = roomsByRate.getAt(0); //get the cheapest room
+			//otherwise we are good to create the reservation room list
+			ListItem item = cheapestRooms.getAt(0); //get the cheapest room
 			assert item instanceof Room;			
 			SearchableOrderedList reservationRoomList = new SearchableOrderedList();
 			reservationRoomList.insert((Room)item); //add the cheapest room to the reservation
@@ -214,38 +213,6 @@ public class ReservationFileProcessor
 			addReservationToDatabase(request, reservationRoomList);
 		}//else		
 	}
-
-	//------------------------------------------------------
-	// orderRoomsByRate
-	//
-	// PURPOSE:	order the rooms in the given list by increasing rate
-	// PARAMETERS:
-	//		OrderedList: list of rooms to order by rate
-	// Returns:
-	//		SimpleLinkedList: the room list ordered by rate
-	//------------------------------------------------------
-	private static SimpleLinkedList orderRoomsByRate(OrderedList roomList){
-		SimpleLinkedList roomsByRate = new SimpleLinkedList(); //list to be returned
-		
-		if (roomList.getSize() > 0){
-			//iterate over the rooms in the given list and order them by increasing rate
-			roomsByRate.insert(roomList.getAt(0)); //initialize the return list with one room
-			for (int iRoom = 1; iRoom < roomList.getSize(); iRoom++){
-				OrderedItem item = roomList.getAt(iRoom);
-				assert item instanceof Room;
-				Room room = (Room)item;
-				
-				//determine where to insert this room and then do so
-				int index = 0;
-				while (index < roomsByRate.getSize() && room.getRate() > ((Room)(roomsByRate.getAt(index))).getRate()) index++;
-				roomsByRate.insertAt(room, index);				
-			}//for iRoom
-		}//if
-		
-		assert roomsByRate.getSize() == roomList.getSize(); //debugging
-		
-		return roomsByRate;		
-	}
 		
 	//------------------------------------------------------
 	// processMultiRoomReservation
@@ -262,36 +229,28 @@ public class ReservationFileProcessor
 		
 		//**It is assumed that the customer associated with this request is already setup.
 		
-		//Start by getting a set of lists of contiguous rooms that are as large as possible
-		int numContiguous = request.getNumberOfRooms(); //number of contiguous rooms
-		SimpleLinkedList contiguousRoomListSet = //set of available contiguous room lists
-			DatabaseLookup.getContiguousAvailableRooms(request.getHotelId(), request.getStartDate(), request.getDuration(), numContiguous);
-		while (numContiguous > 1 && contiguousRoomListSet.getSize() == 0){
-			//if no list of contiguous available rooms could be mustered then
-			//try to get a list of one size smaller.
-			numContiguous--;
-			contiguousRoomListSet =
-				DatabaseLookup.getContiguousAvailableRooms(request.getHotelId(), request.getStartDate(), request.getDuration(), numContiguous);			
-		}//while
-		
-		//**At this point, if no list of contiguous available rooms is available then we have to 
-		//get a list of non-contiguous rooms to fill the request. If contiguous rooms are available
-		//then we have to pick the cheapest set, along with any other individual rooms, if necessary.
+		//Start by getting the cheapest block of contiguous rooms that is as large as possible.
+		//No block can be longer than the rooms free on the busiest day, so start there.
+		int maxContiguous = Math.min(request.getNumberOfRooms(), //most contiguous rooms wanted
+			ReservationDatabase.getFreeRoomBound(request.getHotelId(), request.getStartDate(), request.getDuration(), null));
+		OrderedList cheapestRoomList = //cheapest available block of contiguous rooms
+			DatabaseLookup.getCheapestContiguousRooms(request.getHotelId(), request.getStartDate(), request.getDuration(), maxContiguous);
+		
+		//**At this point, if no contiguous rooms are available then we have to get a list
+		//of non-contiguous rooms to fill the request. If contiguous rooms are available
+		//then we take the cheapest block, along with any other individual rooms, if necessary.
 		
 		//check if any contiguous rooms are available, if not then proceed with non-contiguous room assignment
-		if (contiguousRoomListSet.getSize() == 0){
-			//if no set of available contiguous rooms is available, get all available rooms
-			OrderedList availableRoomList = DatabaseLookup.getAvailableRooms(request.getHotelId(), request.getStartDate(), request.getDuration());
+		if (cheapestRoomList.getSize() == 0){
+			//if no set of available contiguous rooms is available, get the cheapest available rooms
+			SimpleLinkedList roomsByRate = DatabaseLookup.getCheapestAvailableRooms(request.getHotelId(), request.getStartDate(), request.getDuration(), null, request.getNumberOfRooms());
 			
 			//ensure enough rooms are available
-			if (availableRoomList.getSize() < request.getNumberOfRooms())
+			if (roomsByRate.getSize() < request.getNumberOfRooms())
 				(new InsufficentAvailableRoomsRequestError(request.getRequestLines())).throwError();
 			else{
 				//if there are enough non-contiguous available rooms to fill the request then
-				//order them by rate.
-				SimpleLinkedList roomsByRate = orderRoomsByRate(availableRoomList);
-				
-				//then create the reservation room list
+				//create the reservation room list
 				SearchableOrderedList reservationRoomList = new SearchableOrderedList();
 				for (int iRoom = 0; iRoom < request.getNumberOfRooms(); iRoom++){
 					ListItem item = roomsByRate.getAt(iRoom); //get the next cheapest room
@@ -304,10 +263,6 @@ public class ReservationFileProcessor
 			}//else
 		}//if
 		else{
-			//if at least one list of contiguous rooms is available,
-			//then begin by getting the lowest cost list
-			OrderedList cheapestRoomList = getCheapestRoomList(contiguousRoomListSet);
-			
 			//for good measure
 			assert cheapestRoomList.getSize() <= request.getNumberOfRooms(); 
 			
@@ -327,9 +282,6 @@ public class ReservationFileProcessor
 						availableRoomList.removeItem((Room)item);
 					}//for iRoom
 					
-					//order the remaining rooms by increasing rate
-					SimpleLinkedList roomsByRate = orderRoomsByRate(availableRoomList);
-					
 					//fill the reservation room list to the requested number
 					for (int ii = cheapestRoomList.getSize(); ii < request.getNumberOfRooms(); ii++){
 						cheapestRoomList.insert(availableRoomList.removeAt(0));
@@ -357,43 +309,6 @@ public class ReservationFileProcessor
 		}//else
 	}
 	
-	//------------------------------------------------------
-	// getCheapestRoomList
-	//
-	// PURPOSE:	gets the lowest cost room list in a given set of such lists
-	// PARAMETERS:
-	//		SimpleLinkedList: the set of room lists
-	// Returns:
-	//		OrderedList: the lowest cost room list, null if the given set is empty
-	//------------------------------------------------------
-	private static OrderedList getCheapestRoomList(SimpleLinkedList roomListSet){
-		if (roomListSet.getSize() == 0) return null;
-		
-		//loop over the given lists and find the cheapest one
-		int cheapestCost = Integer.MAX_VALUE; //initial lowest cost to compare against
-		OrderedList cheapestRoomList = null; //reference to cheapest list of rooms
-		for (int iList = 0; iList < roomListSet.getSize(); iList++){
-			//get the next list in the set and determine its cost
-			ListItem itemList = roomListSet.getAt(iList);
-			assert itemList instanceof OrderedList;
-			OrderedList currentRoomList = (OrderedList)itemList;
-			int currentCost = 0;		
-			for (int iRoom = 0; iRoom < currentRoomList.getSize(); iRoom++){
-				OrderedItem item = currentRoomList.getAt(iRoom);
-				assert item instanceof Room;
-				currentCost += ((Room)item).getRate();
-			}//for iRoom
-			
-			//now check if the current room is cheaper. if so, update our comparison data
-			if (currentCost < cheapestCost){
-				cheapestCost = currentCost;
-				cheapestRoomList = currentRoomList;
-			}//if
-		}//for iList
-		
-		return cheapestRoomList;
-	}
-
 	//------------------------------------------------------
 	// addReservationToDatabase
 	//
@@ -408,7 +323,7 @@ public class ReservationFileProcessor
 		ReservationDatabase.addReservation(new Reservation(
 			request.getStartDate(), 
 			request.getDuration(), 
-			CustomerDatabase.getCustomerByName(request.getCustomerName()), 
+			CustomerDatabase.getCustomerById(request.getCustomerId()), 
 			HotelDatabase.getHotelById(request.getHotelId()),
 			roomList));
 	}
@@ -424,8 +339,16 @@ public class ReservationFileProcessor
 	private static void processCancellationRequest(Request request){
 		assert request.getRequestType() == RequestType.CANCELLATION; //for good measure
 		
+		//a cancellation by reservation ID needs no search at all. IDs are issued
+		//from 1, so no reservation has any other ID.
+		if (request.hasReservationId()){
+			if (request.getReservationId() < 1 || ReservationDatabase.removeReservationById(request.getReservationId()) == null)
+				(new NoSuchReservationExistsRequestError(request.getRequestLines())).throwError();
+			return;
+		}//if
+		
 		//do some input validation
-		if (!CustomerDatabase.doesCustomerExist(request.getCustomerName())){
+		if (!CustomerDatabase.doesCustomerExist(request.getCustomerId())){
 			//issue an error because the given customer does not exist
 			(new CustomerDoesNotExistRequestError(request.getRequestLines(), request.getCustomerName())).throwError();
 		}//if
@@ -435,7 +358,7 @@ public class ReservationFileProcessor
 		}//else if
 		else{
 			//so far so good. Try to remove the reservation from the database
-			SimpleLinkedList removedReservations = ReservationDatabase.removeReservation(request.getCustomerName(), request.getHotelId(), request.getStartDate());
+			SimpleLinkedList removedReservations = ReservationDatabase.removeReservation(request.getCustomerId(), request.getHotelId(), request.getStartDate());
 			
 			//check if any reservations were found. issue an error if not.
 			if (removedReservations.getSize() == 0)
@@ -445,6 +368,69 @@ public class ReservationFileProcessor
 		}//else
 	}	
 	
+	//------------------------------------------------------
+	// processModificationRequest
+	//
+	// PURPOSE:	process a request moving the reservation with a given ID to
+	//			new dates. The reservation keeps its ID and rooms, so it can
+	//			only move to dates on which those rooms are free.
+	// PARAMETERS:
+	//		Request: the modification request
+	// Returns: none
+	//------------------------------------------------------
+	private static void processModificationRequest(Request request){
+		assert request.getRequestType() == RequestType.MODIFICATION; //for good measure
+		
+		//validate the ID and the new dates
+		if (!request.hasReservationId() || request.getReservationId() < 1 || ReservationDatabase.getReservationById(request.getReservationId()) == null)
+			(new NoSuchReservationExistsRequestError(request.getRequestLines())).throwError();
+		else if (request.getStartDate() < 1)
+			(new InvalidStartDateRequestError(request.getRequestLines(), request.getStartDate())).throwError();
+		else if (request.getDuration() < 1)
+			(new InvalidDurationRequestError(request.getRequestLines(), request.getDuration())).throwError();
+		else if (ReservationDatabase.isBeforeHorizon(request.getStartDate()))
+			(new StartBeforeHorizonRequestError(request.getRequestLines(), request.getStartDate(), ReservationDatabase.getCurrentDay())).throwError();
+		else if (ReservationDatabase.modifyReservationById(request.getReservationId(), request.getStartDate(), request.getDuration()) == null)
+			(new InsufficentAvailableRoomsRequestError(request.getRequestLines())).throwError();
+	}
+	
+	//------------------------------------------------------
+	// processDayAdvanceRequest
+	//
+	// PURPOSE:	process a request moving the booking horizon forward to a
+	//			new current day, dropping the reservations that have ended
+	// PARAMETERS:
+	//		Request: the day advance request
+	// Returns: none
+	//------------------------------------------------------
+	private static void processDayAdvanceRequest(Request request){
+		assert request.getRequestType() == RequestType.DAY_ADVANCE; //for good measure
+		
+		//the day can only move forward, and only while a horizon is kept
+		if (!ReservationDatabase.hasBookingHorizon())
+			(new InvalidDayAdvanceRequestError(request.getRequestLines(), "No booking horizon is set")).throwError();
+		else if (request.getDay() < ReservationDatabase.getCurrentDay())
+			(new InvalidDayAdvanceRequestError(request.getRequestLines(), "Day: " + request.getDay() + " is before the current day " + ReservationDatabase.getCurrentDay())).throwError();
+		else
+			ReservationDatabase.advanceToDay(request.getDay());
+	}
+	
+	//------------------------------------------------------
+	// tokenizeLine1
+	//
+	// PURPOSE:	splits the first line of a request into its tokens: the
+	//			request word, then tag and value pairs. Runs of white space
+	//			and colons separate tokens, so none of them is empty.
+	// PARAMETERS:
+	//		String: the first line of the request
+	// Returns:
+	//		String[]: the tokens
+	//------------------------------------------------------
+	private static String[] tokenizeLine1(String line1)
+    {
+		return line1.trim().split("[\\s:]+");
+	}
+	
 	//-----------------------------------------
 	// CLASS: Inner enum class RequestType 
 	//
@@ -452,7 +438,118 @@ public class ReservationFileProcessor
 	//
 	// REMARKS: An enum-type class that manages reservation types
 	//-----------------------------------------
-	private enum RequestType{RESERVATION, CANCELLATION};	
+	private enum RequestType{RESERVATION, CANCELLATION, MODIFICATION, DAY_ADVANCE};	
+	
+	//-----------------------------------------
+	// CLASS: Inner class RequestReader
+	//
+	// Author: Cong Thanh Tran
+	//
+	// REMARKS: A thread that reads the reservation file, parses each pair of
+	//			lines into a Request and puts it on the request queue, waiting
+	//			whenever the queue is full.
+	//-----------------------------------------
+	private class RequestReader extends Thread
+    {
+		private String filename;       //path and filename of the reservation data file
+		private BoundedQueue requestQueue; //queue the parsed Requests are put on
+		
+		//------------------------------------------------------
+		// RequestReader Constructor
+		//
+		// PURPOSE:	Initializes this object
+		// PARAMETERS: 
+		//		String: path and filename of the reservation data file
+		//		BoundedQueue: queue the parsed Requests are put on
+		// Returns: None
+		//------------------------------------------------------
+		public RequestReader(String filename, BoundedQueue requestQueue)
+        {
+			this.filename = filename;
+			this.requestQueue = requestQueue;
+		}
+		
+		//------------------------------------------------------
+		// run (overrides)
+		//
+		// PURPOSE:	reads the file until the end, then closes the queue. If
+		//			reading stops on an error the queue is failed with it instead,
+		//			for the processing thread to report.
+		// PARAMETERS: none
+		// Returns: none
+		//------------------------------------------------------
+		public void run()
+        {
+			Throwable failure = null; //what stopped the reading, if anything
+			
+			//open the file and start reading line by line
+			try
+	        {
+	            FileInputStream fileInStream = new FileInputStream(filename);
+	            BufferedReader reader = new BufferedReader(new InputStreamReader(fileInStream));
+	            
+	            //Read until end of file
+	            String line1 = reader.readLine();
+	            while (line1 != null)
+	            {
+					//ignore extra blank lines
+					if (line1.trim().length() == 0)
+					{
+						line1 = reader.readLine();
+						continue; 
+					}//if
+					
+					//get the next line of reservation data. A cancellation by
+					//reservation ID has no second line.
+					String line2 = null;
+					if (!isSingleLineRequest(line1))
+					    line2 = reader.readLine();
+					
+					//store the two lines of data as a Request in the queue. Stop
+					//if the processing thread is no longer taking them.
+					if (!requestQueue.put(new Request(line1, line2)))
+					    break;
+	                
+	                //set the "line" variable for next loop iteration
+	                line1 = reader.readLine();
+	            }//while         
+	         
+				//close the file now that we are done reading
+				reader.close();
+				fileInStream.close();
+	        }//try 
+	        catch (Throwable ex)
+	        {
+	            failure = ex;
+	        }//catch
+			finally
+			{
+				//let the processing thread know there are no more requests
+				if (failure != null) requestQueue.fail(failure);
+				else requestQueue.close();
+			}//finally
+		}
+		
+		//------------------------------------------------------
+		// isSingleLineRequest
+		//
+		// PURPOSE:	checks whether a request takes up only the given line,
+		//			as a cancellation by reservation ID, a modification or a day
+		//			advance does
+		// PARAMETERS: 
+		//		String: the first line of the request
+		// Returns:
+		//		boolean: true if the request has no second line
+		//------------------------------------------------------
+		private boolean isSingleLineRequest(String line1)
+        {
+			String[] tokens = tokenizeLine1(line1);
+			if (tokens[0].equals("MODIFY") || tokens[0].equals("ADVANCE"))
+			    return true;
+			return tokens.length >= 2 && tokens[0].equals("CANCEL") && tokens[1].equals("ID");
+		}
+		
+	}//RequestReader
 	
 	//-----------------------------------------
 	// CLASS: Inner class Request
@@ -466,10 +563,16 @@ public class ReservationFileProcessor
     {
 		//data members
 		private RequestType requestType;
+		private boolean hasReservationId;
+		private int reservationId;
+		private int day;
 		private int hotelId;
 		private int startDate;
 		private int duration;
-		private String customerName;
+		private int customerId;
+		private int nameFirstEnd;
+		private int nameSecondStart;
+		private int nameSecondEnd;
 		private RoomType preferredRoomType;
 		private int numberOfRooms;
 		private String line1;
@@ -482,16 +585,17 @@ public class ReservationFileProcessor
 		//			reservations file and parsing them.
 		// PARAMETERS: 
 		//		String: first line describing the request
-		//		String: second line describing the request
+		//		String: second line describing the request, or null if the request has only one
 		// Returns: None
 		//------------------------------------------------------
 		public Request(String line1, String line2){
 			this.line1 = line1;
 			this.line2 = line2;
 			duration = -1; //if we have a cancellation then duration may not be initialized. So we do that here
+			hasReservationId = false;
 			
 			parseLine1(line1);
-			parseLine2(line2);
+			if (line2 != null) parseLine2(line2);
 		}
 		
 		//------------------------------------------------------
@@ -506,19 +610,23 @@ public class ReservationFileProcessor
 		private void parseLine1(String line)
         {
 			//assumed format as given in assignment 1 document
-			String[] tokens = line.split("[\\s:]");
+			String[] tokens = tokenizeLine1(line);
 			
-			//deal with first token: reserve or cancel
+			//deal with first token: reserve, cancel, modify or advance
 			if (tokens[0].equals("RESERVE")) requestType = RequestType.RESERVATION;
 			else if (tokens[0].equals("CANCEL")) requestType = RequestType.CANCELLATION;
+			else if (tokens[0].equals("MODIFY")) requestType = RequestType.MODIFICATION;
+			else if (tokens[0].equals("ADVANCE")) requestType = RequestType.DAY_ADVANCE;
 			else{assert 1==0;}//would catch invalid input but we can assume input format is valid
 			
-			//deal with HOTEL, START and DURATION tags
+			//deal with HOTEL, START, DURATION, ID and DAY tags
 			int index = 1;
 			while (index < tokens.length){
 				if (tokens[index].equals("HOTEL")){hotelId = Integer.parseInt(tokens[index+1]);}
 				if (tokens[index].equals("START")){startDate = Integer.parseInt(tokens[index+1]);}
-				if (tokens[index].equals("DURATION")){duration = Integer.parseInt(tokens[index+1]);}				
+				if (tokens[index].equals("DURATION")){duration = Integer.parseInt(tokens[index+1]);}
+				if (tokens[index].equals("ID")){reservationId = Integer.parseInt(tokens[index+1]); hasReservationId = true;}
+				if (tokens[index].equals("DAY")){day = Integer.parseInt(tokens[index+1]);}
 				index += 2;
 			}//while
 		}
@@ -534,15 +642,25 @@ public class ReservationFileProcessor
 		//------------------------------------------------------
 		private void parseLine2(String line)
         {
-			//assumed format as given in assignment 1 document
-			String[] tokens = line.split("[\\s,]");
+			//assumed format as given in assignment 1 document: tokens separated by
+			//a comma or a white space character. The line is scanned in place so
+			//that a known customer name is found without building a String.
+			int firstEnd = nextSeparator(line, 0);
+			int secondStart = Math.min(firstEnd + 1, line.length());
+			int secondEnd = nextSeparator(line, secondStart);
 			
-			//store the customer name
-			customerName = tokens[0] + ", " + tokens[1];
+			//store where the customer name is. It is only looked up, or given
+			//an ID, by the thread processing the request.
+			customerId = CustomerNameDictionary.NO_ID;
+			nameFirstEnd = firstEnd;
+			nameSecondStart = secondStart;
+			nameSecondEnd = secondEnd;
 			
 			//deal with third token, if given
-			if (tokens.length >= 3){
-				String token = tokens[2]; //assign to a varible to make code more readable
+			int thirdStart = Math.min(secondEnd + 1, line.length());
+			int thirdEnd = nextSeparator(line, thirdStart);
+			if (thirdEnd > thirdStart){
+				String token = line.substring(thirdStart, thirdEnd); //assign to a varible to make code more readable
 				if (token.matches("\\d+"))
 				{
 					//if the token is a number then:
@@ -564,6 +682,36 @@ public class ReservationFileProcessor
 			}//else
 		}
 		
+		//------------------------------------------------------
+		// nextSeparator
+		//
+		// PURPOSE:	finds the next separator character of a line
+		// PARAMETERS: 
+		//		String: the line
+		//		int: where to start looking
+		// Returns:
+		//		int: the index of the separator, or the line's length if there is none
+		//------------------------------------------------------
+		private int nextSeparator(String line, int fromIndex)
+        {
+			int index = fromIndex;
+			while (index < line.length() && !isSeparator(line.charAt(index)))
+			    index++;
+			return index;
+		}
+		
+		//------------------------------------------------------
+		// isSeparator
+		//
+		// PURPOSE:	checks whether a character separates tokens of a second
+		//			request line: a comma or one of the white space
+		//			characters of the regular expression \s
+		//------------------------------------------------------
+		private boolean isSeparator(char c)
+        {
+			return c == ',' || c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+		}
+		
 		//------------------------------------------------------
 		// getRequestType
 		//
@@ -574,6 +722,36 @@ public class ReservationFileProcessor
 		//------------------------------------------------------
 		public RequestType getRequestType(){return requestType;}
 		
+		//------------------------------------------------------
+		// hasReservationId
+		//
+		// PURPOSE:	checks whether the request gives a reservation ID
+		// PARAMETERS: none
+		// Returns:
+		//		boolean: true if an ID tag was given
+		//------------------------------------------------------
+		public boolean hasReservationId(){return hasReservationId;}
+		
+		//------------------------------------------------------
+		// getReservationId
+		//
+		// PURPOSE:	returns the held reservation ID
+		// PARAMETERS: none
+		// Returns:
+		//		int: the held reservation ID, meaningful only if hasReservationId()
+		//------------------------------------------------------
+		public int getReservationId(){return reservationId;}
+		
+		//------------------------------------------------------
+		// getDay
+		//
+		// PURPOSE:	returns the held day of a day advance
+		// PARAMETERS: none
+		// Returns:
+		//		int: the held day
+		//------------------------------------------------------
+		public int getDay(){return day;}
+		
 		//------------------------------------------------------
 		// getHotelId
 		//
@@ -604,6 +782,35 @@ public class ReservationFileProcessor
 		//------------------------------------------------------
 		public int getDuration(){return duration;}			
 
+		//------------------------------------------------------
+		// getCustomerId
+		//
+		// PURPOSE:	returns the ID of the held customer name, looking it up
+		//			without giving the name an ID
+		// PARAMETERS: none
+		// Returns:
+		//		int: the customer ID, or CustomerNameDictionary.NO_ID if the
+		//			 name has none yet
+		//------------------------------------------------------
+		public int getCustomerId(){
+			if (customerId == CustomerNameDictionary.NO_ID)
+				customerId = CustomerDatabase.getCustomerId(line2, 0, nameFirstEnd, nameSecondStart, nameSecondEnd);
+			return customerId;
+		}
+		
+		//------------------------------------------------------
+		// internCustomerName
+		//
+		// PURPOSE:	gives the held customer name an ID if it has none
+		// PARAMETERS: none
+		// Returns:
+		//		int: the customer ID
+		//------------------------------------------------------
+		public int internCustomerName(){
+			customerId = CustomerDatabase.internCustomerName(line2, 0, nameFirstEnd, nameSecondStart, nameSecondEnd);
+			return customerId;
+		}
+		
 		//------------------------------------------------------
 		// getCustomerName
 		//
@@ -612,7 +819,12 @@ public class ReservationFileProcessor
 		// Returns:
 		//		String: the held customer name
 		//------------------------------------------------------
-		public String getCustomerName(){return customerName;}		
+		public String getCustomerName(){
+			if (getCustomerId() != CustomerNameDictionary.NO_ID)
+				return CustomerDatabase.getCustomerName(customerId);
+			//else the name was never seen, so build it from the line
+			return line2.substring(0, nameFirstEnd) + ", " + line2.substring(nameSecondStart, nameSecondEnd);
+		}		
 
 		//------------------------------------------------------
 		// getPreferredRoomType
@@ -658,7 +870,7 @@ public class ReservationFileProcessor
 		// Returns:
 		//		String: the request lines as they appeared in the file
 		//------------------------------------------------------
-		public String getRequestLines(){return line1 + " - " + line2;}	
+		public String getRequestLines(){return (line2 == null) ? line1 : line1 + " - " + line2;}	
 		
 	}//Request
 	
@@ -0,0 +1,24 @@
+//-----------------------------------------
+// CLASS: ReservationFileReadError
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Error created when the reservation file cannot be read through,
+//			e.g. it is missing or a request in it cannot be parsed
+//
+//-----------------------------------------
+
+public class ReservationFileReadError extends FatalError {
+
+	//------------------------------------------------------
+	// ReservationFileReadError Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS:
+	//		String: path and filename of the reservation data file
+	//		Throwable: what stopped the file from being read
+	// Returns: None
+	//------------------------------------------------------
+	public ReservationFileReadError(String filename, Throwable cause) {super("In ReservationFileProcessor: could not read " + filename + ": " + cause);}
+
+} //ReservationFileReadError
@@ -0,0 +1,464 @@
+//-----------------------------------------
+// CLASS: ReservationIntervalTree
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: An interval tree over the reservations of one room. It is an AVL
+//			tree ordered by start date, reservations with equal start dates
+//			kept in the order they were added, and every node also records
+//			the lowest and highest date covered anywhere in its subtree. An
+//			overlap query can then skip every subtree lying wholly before or
+//			after the dates asked about, answering in O(log n).
+//-----------------------------------------
+
+public class ReservationIntervalTree extends ListItem
+{
+	
+	private Node root;       //root of the tree, null if empty
+	private int size;        //number of reservations in the tree
+	private boolean isFound; //set by removeNode when the reservation was found
+	
+	//------------------------------------------------------
+	// ReservationIntervalTree Constructor
+	//
+	// PURPOSE:	Initializes this object as an empty tree
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	ReservationIntervalTree()
+	{
+		root = null;
+		size = 0;
+	}
+	
+	//------------------------------------------------------
+	// getSize
+	//
+	// PURPOSE:	Returns current number of reservations
+	// PARAMETERS: None
+	// Returns: Curent number of reservations
+	//------------------------------------------------------
+	public int getSize() { return size; }
+	
+	//------------------------------------------------------
+	// insert
+	//
+	// PURPOSE:	add a reservation, after any with the same start date
+	// PARAMETERS:
+	//		Reservation: the reservation to add
+	// Returns: none
+	//------------------------------------------------------
+	public void insert( Reservation reservation )
+    {
+		root = insertNode(root, new Node(reservation));
+		size++;
+	}
+	
+	//------------------------------------------------------
+	// remove
+	//
+	// PURPOSE:	remove the given reservation (compared by reference)
+	// PARAMETERS:
+	//		Reservation: the reservation to remove
+	// Returns:
+	//		boolean: true if the reservation was in the tree
+	//------------------------------------------------------
+	public boolean remove( Reservation reservation )
+    {
+		isFound = false;
+		root = removeNode(root, reservation);
+		if (isFound)
+		    size--;
+		return isFound;
+	}
+	
+	//------------------------------------------------------
+	// hasOverlap
+	//
+	// PURPOSE:	checks whether any reservation overlaps the given dates, in
+	//			the sense of DatabaseLookup.isDateOverlap
+	// PARAMETERS:
+	//		int: start date
+	//		int: duration
+	// Returns:
+	//		boolean: true if some reservation overlaps the dates
+	//------------------------------------------------------
+	public boolean hasOverlap( int startDate, int duration )
+    {
+		int endDate = startDate + duration - 1;
+		return hasOverlap(root, startDate, duration, Math.min(startDate, endDate), Math.max(startDate, endDate));
+	}
+	
+	//------------------------------------------------------
+	// addOverlappingTo
+	//
+	// PURPOSE:	insert, in tree order, every reservation that overlaps the
+	//			given dates, in the sense of DatabaseLookup.isDateOverlap
+	// PARAMETERS:
+	//		OrderedList: the list to add to
+	//		int: start date
+	//		int: duration
+	// Returns: none
+	//------------------------------------------------------
+	public void addOverlappingTo( OrderedList list, int startDate, int duration )
+    {
+		int endDate = startDate + duration - 1;
+		addOverlappingTo(root, list, startDate, duration, Math.min(startDate, endDate), Math.max(startDate, endDate));
+	}
+	
+	//------------------------------------------------------
+	// addCoveredDatesTo
+	//
+	// PURPOSE:	add to a set the dates of a range covered by reservations of
+	//			at least one day
+	// PARAMETERS:
+	//		RoomOccupancySet: the set to add to
+	//		int: first date of the range
+	//		int: last date of the range
+	// Returns: none
+	//------------------------------------------------------
+	public void addCoveredDatesTo( RoomOccupancySet occupiedDates, int firstDate, int lastDate )
+    {
+		addCoveredDatesTo(root, occupiedDates, firstDate, lastDate);
+	}
+	
+	//------------------------------------------------------
+	// addAllTo
+	//
+	// PURPOSE:	insert every reservation, in tree order, into the given list
+	// PARAMETERS:
+	//		OrderedList: the list to add to
+	// Returns: none
+	//------------------------------------------------------
+	public void addAllTo( OrderedList list )
+    {
+		//iterative in-order walk with an explicit stack; an AVL tree of n
+		//nodes is less than 1.45 log2(n + 2) high
+		Node[] stack = new Node[48];
+		int depth = 0;
+		Node node = root;
+		while (node != null || depth > 0)
+        {
+			while (node != null)
+            {
+				stack[depth++] = node;
+				node = node.left;
+			}//while
+			node = stack[--depth];
+			list.insert(node.reservation);
+			node = node.right;
+		}//while
+	}
+	
+	//------------------------------------------------------
+	// hasOverlap
+	//
+	// PURPOSE:	search a subtree for an overlapping reservation. A
+	//			reservation's covered dates run from the lower to the higher of
+	//			its start and end dates; only subtrees whose covered dates meet
+	//			the query's are searched, and each candidate is then checked
+	//			with the exact rule.
+	// PARAMETERS:
+	//		Node: root of the subtree
+	//		int: query start date
+	//		int: query duration
+	//		int: lowest date covered by the query
+	//		int: highest date covered by the query
+	// Returns:
+	//		boolean: true if some reservation in the subtree overlaps
+	//------------------------------------------------------
+	private static boolean hasOverlap( Node node, int startDate, int duration, int lowDate, int highDate )
+    {
+		while (node != null && node.minLow <= highDate && node.maxHigh >= lowDate)
+        {
+			if (node.low <= highDate && node.high >= lowDate
+			    && DatabaseLookup.isDateOverlap(startDate, duration, node.reservation.getStartDate(), node.reservation.getDuration()))
+			    return true;
+			if (hasOverlap(node.left, startDate, duration, lowDate, highDate))
+			    return true;
+			node = node.right;
+		}//while
+		return false;
+	}
+	
+	//------------------------------------------------------
+	// addOverlappingTo
+	//
+	// PURPOSE:	insert, in tree order, the overlapping reservations of a
+	//			subtree, searching only subtrees whose covered dates meet the
+	//			query's as hasOverlap does
+	// PARAMETERS:
+	//		Node: root of the subtree
+	//		OrderedList: the list to add to
+	//		int: query start date
+	//		int: query duration
+	//		int: lowest date covered by the query
+	//		int: highest date covered by the query
+	// Returns: none
+	//------------------------------------------------------
+	private static void addOverlappingTo( Node node, OrderedList list, int startDate, int duration, int lowDate, int highDate )
+    {
+		while (node != null && node.minLow <= highDate && node.maxHigh >= lowDate)
+        {
+			addOverlappingTo(node.left, list, startDate, duration, lowDate, highDate);
+			if (node.low <= highDate && node.high >= lowDate
+			    && DatabaseLookup.isDateOverlap(startDate, duration, node.reservation.getStartDate(), node.reservation.getDuration()))
+			    list.insert(node.reservation);
+			node = node.right;
+		}//while
+	}
+	
+	//------------------------------------------------------
+	// addCoveredDatesTo
+	//
+	// PURPOSE:	add to a set the dates of a range covered by reservations of
+	//			at least one day in a subtree
+	// PARAMETERS:
+	//		Node: root of the subtree
+	//		RoomOccupancySet: the set to add to
+	//		int: first date of the range
+	//		int: last date of the range
+	// Returns: none
+	//------------------------------------------------------
+	private static void addCoveredDatesTo( Node node, RoomOccupancySet occupiedDates, int firstDate, int lastDate )
+    {
+		while (node != null && node.minLow <= lastDate && node.maxHigh >= firstDate)
+        {
+			if (node.start <= lastDate && node.high >= firstDate && node.reservation.getDuration() > 0)
+			    occupiedDates.addRange(Math.max(node.start, firstDate), Math.min(node.high, lastDate));
+			addCoveredDatesTo(node.left, occupiedDates, firstDate, lastDate);
+			node = node.right;
+		}//while
+	}
+	
+	//------------------------------------------------------
+	// insertNode
+	//
+	// PURPOSE:	add a node to a subtree. Ties go to the right so that the node
+	//			lands after any with the same start date.
+	// PARAMETERS:
+	//		Node: root of the subtree (null for empty)
+	//		Node: the node to add
+	// Returns:
+	//		Node: root of the rebalanced subtree
+	//------------------------------------------------------
+	private static Node insertNode( Node node, Node newNode )
+    {
+		if (node == null)
+		    return newNode;
+		
+		if (newNode.start < node.start)
+		    node.left = insertNode(node.left, newNode);
+		else
+		    node.right = insertNode(node.right, newNode);
+		return rebalance(node);
+	}
+	
+	//------------------------------------------------------
+	// removeNode
+	//
+	// PURPOSE:	remove the node holding a reservation from a subtree. Nodes
+	//			with the same start date may sit on either side after
+	//			rotations, so both are searched among equal start dates.
+	// PARAMETERS:
+	//		Node: root of the subtree (null for empty)
+	//		Reservation: the reservation to remove
+	// Returns:
+	//		Node: root of the rebalanced subtree
+	//------------------------------------------------------
+	private Node removeNode( Node node, Reservation reservation )
+    {
+		if (node == null)
+		    return null;
+		
+		int start = reservation.getStartDate();
+		if (start < node.start)
+		    node.left = removeNode(node.left, reservation);
+		else if (start > node.start)
+		    node.right = removeNode(node.right, reservation);
+		else if (node.reservation == reservation)
+        {
+			isFound = true;
+			if (node.left == null)
+			    return node.right;
+			if (node.right == null)
+			    return node.left;
+			
+			//replace the node with the first node of its right subtree
+			Node successor = node.right;
+			while (successor.left != null)
+			    successor = successor.left;
+			successor.right = removeFirst(node.right);
+			successor.left = node.left;
+			return rebalance(successor);
+		}
+		else
+        {
+			node.left = removeNode(node.left, reservation);
+			if (!isFound)
+			    node.right = removeNode(node.right, reservation);
+		}//else
+		
+		return rebalance(node);
+	}
+	
+	//------------------------------------------------------
+	// removeFirst
+	//
+	// PURPOSE:	unlink the first node of a subtree
+	// PARAMETERS:
+	//		Node: root of the subtree (not null)
+	// Returns:
+	//		Node: root of the rebalanced subtree
+	//------------------------------------------------------
+	private static Node removeFirst( Node node )
+    {
+		if (node.left == null)
+		    return node.right;
+		node.left = removeFirst(node.left);
+		return rebalance(node);
+	}
+	
+	//------------------------------------------------------
+	// rebalance
+	//
+	// PURPOSE:	restore the AVL height rule at a node whose subtrees differ
+	//			in height by at most two, and refresh its summaries
+	// PARAMETERS:
+	//		Node: the node
+	// Returns:
+	//		Node: root of the rebalanced subtree
+	//------------------------------------------------------
+	private static Node rebalance( Node node )
+    {
+		int balance = heightOf(node.left) - heightOf(node.right);
+		if (balance > 1)
+        {
+			if (heightOf(node.left.left) < heightOf(node.left.right))
+			    node.left = rotateLeft(node.left);
+			return rotateRight(node);
+		}//if
+		if (balance < -1)
+        {
+			if (heightOf(node.right.right) < heightOf(node.right.left))
+			    node.right = rotateRight(node.right);
+			return rotateLeft(node);
+		}//if
+		
+		node.update();
+		return node;
+	}
+	
+	//------------------------------------------------------
+	// rotateLeft
+	//
+	// PURPOSE:	rotate a node down to the left of its right child
+	// PARAMETERS:
+	//		Node: the node
+	// Returns:
+	//		Node: the new root of the subtree
+	//------------------------------------------------------
+	private static Node rotateLeft( Node node )
+    {
+		Node right = node.right;
+		node.right = right.left;
+		right.left = node;
+		node.update();
+		right.update();
+		return right;
+	}
+	
+	//------------------------------------------------------
+	// rotateRight
+	//
+	// PURPOSE:	rotate a node down to the right of its left child
+	// PARAMETERS:
+	//		Node: the node
+	// Returns:
+	//		Node: the new root of the subtree
+	//------------------------------------------------------
+	private static Node rotateRight( Node node )
+    {
+		Node left = node.left;
+		node.left = left.right;
+		left.right = node;
+		node.update();
+		left.update();
+		return left;
+	}
+	
+	//------------------------------------------------------
+	// heightOf
+	//
+	// PURPOSE:	get the height of a subtree
+	// PARAMETERS:
+	//		Node: root of the subtree (null for empty)
+	// Returns:
+	//		int: the height, 0 for an empty subtree
+	//------------------------------------------------------
+	private static int heightOf( Node node ) { return node == null ? 0 : node.height; }
+	
+	//-----------------------------------------
+	// CLASS: Inner class Node
+	//
+	// REMARKS: A tree node holding one reservation and the summaries of
+	//			its subtree
+	//-----------------------------------------
+
+	private static class Node
+    {
+		
+		Reservation reservation; //the reservation held by this node
+		int start;               //its start date, the ordering key
+		int low;                 //lowest date it covers
+		int high;                //highest date it covers
+		int minLow;              //lowest date covered in this subtree
+		int maxHigh;             //highest date covered in this subtree
+		int height;              //height of this subtree
+		Node left;               //reservations starting earlier
+		Node right;              //reservations starting later or on the same date
+		
+		//------------------------------------------------------
+		// Node Constructor
+		//
+		// PURPOSE:	Initializes this object as a leaf
+		// PARAMETERS:
+		//		Reservation: the reservation to hold
+		//------------------------------------------------------
+		Node( Reservation reservation )
+        {
+			this.reservation = reservation;
+			start = reservation.getStartDate();
+			int end = start + reservation.getDuration() - 1;
+			low = Math.min(start, end);
+			high = Math.max(start, end);
+			minLow = low;
+			maxHigh = high;
+			height = 1;
+		}
+		
+		//------------------------------------------------------
+		// update
+		//
+		// PURPOSE:	recompute the height and date summaries from the children
+		//------------------------------------------------------
+		void update()
+        {
+			height = 1 + Math.max(heightOf(left), heightOf(right));
+			minLow = low;
+			maxHigh = high;
+			if (left != null)
+            {
+				minLow = Math.min(minLow, left.minLow);
+				maxHigh = Math.max(maxHigh, left.maxHigh);
+			}//if
+			if (right != null)
+            {
+				minLow = Math.min(minLow, right.minLow);
+				maxHigh = Math.max(maxHigh, right.maxHigh);
+			}//if
+		}
+		
+	} //Node
+	
+}//ReservationIntervalTree
@@ -0,0 +1,216 @@
+//-----------------------------------------
+// CLASS: ReservationKeyIndex
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: A chained hash table mapping the (customer ID, hotel ID, start
+//			date) of Reservations to the Reservations themselves, the key
+//			a cancellation names them by. Several reservations may share a
+//			key; they are kept in insertion order, the order the reservation
+//			list holds them in.
+//
+//-----------------------------------------
+
+public class ReservationKeyIndex extends ListItem
+{
+	
+	private static final int INITIAL_CAPACITY = 16; //number of buckets in a new index (power of two)
+	
+	private Entry[] buckets; //bucket heads, each a chain of entries
+	private int size;        //number of reservations indexed
+	
+	//------------------------------------------------------
+	// ReservationKeyIndex Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	ReservationKeyIndex()
+	{
+		buckets = new Entry[INITIAL_CAPACITY];
+		size = 0;
+	}
+	
+	//------------------------------------------------------
+	// getSize
+	//
+	// PURPOSE:	Returns current number of indexed reservations
+	// PARAMETERS: None
+	// Returns: Curent number of indexed reservations
+	//------------------------------------------------------
+	public int getSize() { return size; }
+	
+	//------------------------------------------------------
+	// put
+	//
+	// PURPOSE:	index the given reservation under its key
+	// PARAMETERS:
+	//		Reservation: the reservation to index
+	// Returns: none
+	//------------------------------------------------------
+	public void put( Reservation reservation )
+	{
+		//grow before the chains get long (load factor 0.75)
+		if ( size + 1 > buckets.length - (buckets.length >> 2) )
+		    resize( buckets.length << 1 );
+		
+		int hash = hash( reservation.getCustomer().getId(), reservation.getHotel().getId(), reservation.getStartDate() );
+		Entry entry = new Entry( hash, reservation );
+		
+		//append to the end of the chain to keep same-key reservations in insertion order
+		int bucket = hash & (buckets.length - 1);
+		if ( buckets[bucket] == null )
+		    buckets[bucket] = entry;
+		else
+		{
+			Entry last = buckets[bucket];
+			while ( last.next != null )
+			    last = last.next;
+			last.next = entry;
+		}//else
+		
+		size++;
+	}
+	
+	//------------------------------------------------------
+	// remove
+	//
+	// PURPOSE:	remove the given reservation (matched by identity) from the index
+	// PARAMETERS:
+	//		Reservation: the reservation to remove
+	// Returns:
+	//		boolean: true if the reservation was indexed, false otherwise
+	//------------------------------------------------------
+	public boolean remove( Reservation reservation )
+	{
+		int hash = hash( reservation.getCustomer().getId(), reservation.getHotel().getId(), reservation.getStartDate() );
+		int bucket = hash & (buckets.length - 1);
+		
+		Entry previous = null;
+		Entry entry = buckets[bucket];
+		while ( entry != null && entry.reservation != reservation )
+		{
+			previous = entry;
+			entry = entry.next;
+		}//while
+		
+		if ( entry == null )
+		    return false;
+		
+		if ( previous == null )
+		    buckets[bucket] = entry.next;
+		else
+		    previous.next = entry.next;
+		
+		size--;
+		return true;
+	}
+	
+	//------------------------------------------------------
+	// getAll
+	//
+	// PURPOSE:	get every reservation with the given key
+	// PARAMETERS:
+	//		int: customer ID
+	//		int: hotel ID
+	//		int: start date
+	// Returns:
+	//		SimpleLinkedList: the reservations found, in insertion order
+	//------------------------------------------------------
+	public SimpleLinkedList getAll( int customerId, int hotelId, int startDate )
+	{
+		int hash = hash( customerId, hotelId, startDate );
+		
+		SimpleLinkedList foundReservations = new SimpleLinkedList();
+		Entry entry = buckets[hash & (buckets.length - 1)];
+		while ( entry != null )
+		{
+			if ( entry.hash == hash && entry.reservation.isRecordMatch( customerId, hotelId, startDate ) )
+			    foundReservations.insertAtEnd( entry.reservation );
+			entry = entry.next;
+		}//while
+		
+		return foundReservations;
+	}
+	
+	//------------------------------------------------------
+	// resize
+	//
+	// PURPOSE:	rehash every entry into a new bucket array, keeping chain order
+	// PARAMETERS:
+	//		int: the new number of buckets (power of two)
+	// Returns: none
+	//------------------------------------------------------
+	private void resize( int capacity )
+	{
+		Entry[] oldBuckets = buckets;
+		Entry[] newTails = new Entry[capacity];
+		buckets = new Entry[capacity];
+		
+		for ( int ii = 0; ii < oldBuckets.length; ii++ )
+		{
+			Entry entry = oldBuckets[ii];
+			while ( entry != null )
+			{
+				Entry next = entry.next;
+				int bucket = entry.hash & (capacity - 1);
+				entry.next = null;
+				if ( newTails[bucket] == null )
+				    buckets[bucket] = entry;
+				else
+				    newTails[bucket].next = entry;
+				newTails[bucket] = entry;
+				entry = next;
+			}//while
+		}//for ii
+	}
+	
+	//------------------------------------------------------
+	// hash
+	//
+	// PURPOSE:	combines the three parts of a key into one well mixed hash
+	// PARAMETERS:
+	//		int: customer ID
+	//		int: hotel ID
+	//		int: start date
+	// Returns:
+	//		int: the hash
+	//------------------------------------------------------
+	private static int hash( int customerId, int hotelId, int startDate )
+	{
+		int hashCode = ((customerId * 31) + hotelId) * 31 + startDate;
+		hashCode *= 0x9E3779B9;
+		return hashCode ^ (hashCode >>> 16);
+	}
+	
+	//-----------------------------------------
+	// CLASS: Inner class Entry
+	//
+	// REMARKS: A single indexed reservation in a bucket chain
+	//-----------------------------------------
+
+	private static class Entry
+	{
+		private final int hash;
+		private final Reservation reservation;
+		private Entry next;
+		
+		//------------------------------------------------------
+		// Entry Constructor
+		//
+		// PURPOSE:	Initializes this object
+		// PARAMETERS:
+		//		int: the hash of the reservation's key
+		//		Reservation: the indexed reservation
+		//------------------------------------------------------
+		public Entry( int hash, Reservation reservation )
+		{
+			this.hash = hash;
+			this.reservation = reservation;
+			next = null;
+		}
+		
+	} //Entry
+
+} //ReservationKeyIndex
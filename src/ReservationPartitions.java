@@ -0,0 +1,362 @@
+//-----------------------------------------
+// CLASS: ReservationPartitions
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: The reservations of one hotel split into partitions of
+//			PARTITION_DAYS days by start date. Each partition keeps its
+//			reservations by start date along with the lowest and highest date
+//			any of them covers, so a query for the reservations overlapping a
+//			date range visits only the partitions that can hold one and skips
+//			those whose dates lie wholly outside the range. The work done
+//			follows how busy the range is, not how long the history is.
+//
+//			How far before a range a partition can still hold an overlapping
+//			reservation depends on the longest span of the reservations held.
+//			The spans are counted so that the longest shrinks again when the
+//			reservations with it are removed.
+//-----------------------------------------
+
+public class ReservationPartitions extends ListItem
+{
+	
+	public static final int PARTITION_DAYS = 30; //days of start dates in one partition
+	
+	private OrderedList partitions;    //the partitions, by first start date
+	private IntKeyMap partitionsByKey; //the same partitions keyed by start date / PARTITION_DAYS
+	private OrderedList spanCounts;    //number of reservations held with each span, by span
+	private long maxSpan;              //most days between the covered dates of any reservation held
+	private int size;                  //number of reservations
+	
+	//------------------------------------------------------
+	// ReservationPartitions Constructor
+	//
+	// PURPOSE:	Initializes this object with no reservations
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	ReservationPartitions()
+	{
+		partitions = new OrderedList();
+		partitionsByKey = new IntKeyMap();
+		spanCounts = new OrderedList();
+		maxSpan = 0;
+		size = 0;
+	}
+	
+	//------------------------------------------------------
+	// getSize
+	//
+	// PURPOSE:	Returns current number of reservations
+	// PARAMETERS: None
+	// Returns: Curent number of reservations
+	//------------------------------------------------------
+	public int getSize() { return size; }
+	
+	//------------------------------------------------------
+	// getNumPartitions
+	//
+	// PURPOSE:	Returns current number of non-empty partitions
+	//------------------------------------------------------
+	public int getNumPartitions() { return partitions.getSize(); }
+	
+	//------------------------------------------------------
+	// insert
+	//
+	// PURPOSE:	add a reservation to its partition, after any with the same
+	//			start date
+	// PARAMETERS:
+	//		Reservation: the reservation to add
+	// Returns: none
+	//------------------------------------------------------
+	public void insert(Reservation reservation)
+    {
+		int key = keyOf(reservation.getStartDate());
+		Partition partition = (Partition)partitionsByKey.get(key);
+		if (partition == null)
+        {
+			partition = new Partition(key);
+			partitions.insert(partition);
+			partitionsByKey.put(key, partition);
+		}//if
+		partition.insert(reservation);
+		
+		countSpan(spanOf(reservation), 1);
+		size++;
+	}
+	
+	//------------------------------------------------------
+	// remove
+	//
+	// PURPOSE:	remove the given reservation (compared by reference)
+	// PARAMETERS:
+	//		Reservation: the reservation to remove
+	// Returns:
+	//		boolean: true if the reservation was held
+	//------------------------------------------------------
+	public boolean remove(Reservation reservation)
+    {
+		int key = keyOf(reservation.getStartDate());
+		Partition partition = (Partition)partitionsByKey.get(key);
+		if (partition == null || !partition.remove(reservation))
+		    return false;
+		
+		//drop a partition once it is empty
+		if (partition.reservations.getSize() == 0)
+        {
+			partitionsByKey.remove(key);
+			ListCursor cursor = partitions.seek(partition);
+			cursor.next();
+			cursor.remove();
+		}//if
+		
+		countSpan(spanOf(reservation), -1);
+		size--;
+		return true;
+	}
+	
+	//------------------------------------------------------
+	// addOverlappingTo
+	//
+	// PURPOSE:	insert into a list every reservation that overlaps the given
+	//			dates, in the sense of DatabaseLookup.isDateOverlap
+	// PARAMETERS:
+	//		OrderedList: the list to add to
+	//		int: start date
+	//		int: duration
+	// Returns: none
+	//------------------------------------------------------
+	public void addOverlappingTo(OrderedList list, int startDate, int duration)
+    {
+		long endDate = (long)startDate + duration - 1;
+		long lowDate = Math.min(startDate, endDate);
+		long highDate = Math.max(startDate, endDate);
+		
+		//an overlapping reservation covers a date of [lowDate, highDate], so it
+		//starts no further than maxSpan days outside that range
+		int firstKey = keyOf(Math.max(lowDate - maxSpan, Integer.MIN_VALUE));
+		int lastKey = keyOf(Math.min(highDate + maxSpan, Integer.MAX_VALUE));
+		
+		ListCursor cursor = partitions.seek(new Partition(firstKey));
+		boolean isPastLast = false;
+		while (!isPastLast && cursor.hasNext())
+        {
+			Partition partition = (Partition)cursor.next();
+			if (partition.key > lastKey)
+			    isPastLast = true;
+			else if (partition.lowDate <= highDate && partition.highDate >= lowDate)
+            {
+				ListCursor reservationCursor = partition.reservations.getCursor();
+				while (reservationCursor.hasNext())
+                {
+					Reservation reservation = (Reservation)reservationCursor.next();
+					if (DatabaseLookup.isDateOverlap(startDate, duration, reservation.getStartDate(), reservation.getDuration()))
+					    list.insert(reservation);
+				}//while
+			}//else if
+		}//while
+	}
+	
+	//------------------------------------------------------
+	// countSpan
+	//
+	// PURPOSE:	add to the number of reservations held with a span, and
+	//			update the longest span held
+	// PARAMETERS:
+	//		long: the span
+	//		int: the number to add, 1 or -1
+	// Returns: none
+	//------------------------------------------------------
+	private void countSpan(long span, int change)
+    {
+		ListCursor cursor = spanCounts.seek(new SpanCount(span));
+		SpanCount spanCount = null;
+		if (cursor.hasNext())
+		    spanCount = (SpanCount)cursor.next();
+		
+		if (spanCount == null || spanCount.span != span)
+		    spanCounts.insert(new SpanCount(span));
+		else
+        {
+			spanCount.count += change;
+			if (spanCount.count == 0)
+			    cursor.remove();
+		}//else
+		
+		//the spans are in ascending order, so the longest is last
+		if (spanCounts.getSize() == 0)
+		    maxSpan = 0;
+		else
+		    maxSpan = ((SpanCount)spanCounts.getAt(spanCounts.getSize() - 1)).span;
+	}
+	
+	//------------------------------------------------------
+	// keyOf
+	//
+	// PURPOSE:	get the key of the partition holding a start date
+	//------------------------------------------------------
+	private static int keyOf(long startDate) { return (int)Math.floorDiv(startDate, (long)PARTITION_DAYS); }
+	
+	//------------------------------------------------------
+	// lowDateOf
+	//
+	// PURPOSE:	get the lowest date a reservation covers: the earlier of its
+	//			start and end dates, worked out as isDateOverlap does
+	//------------------------------------------------------
+	private static long lowDateOf(Reservation reservation)
+    {
+		return Math.min(reservation.getStartDate(), (long)reservation.getStartDate() + reservation.getDuration() - 1);
+	}
+	
+	//------------------------------------------------------
+	// highDateOf
+	//
+	// PURPOSE:	get the highest date a reservation covers: the later of its
+	//			start and end dates, worked out as isDateOverlap does
+	//------------------------------------------------------
+	private static long highDateOf(Reservation reservation)
+    {
+		return Math.max(reservation.getStartDate(), (long)reservation.getStartDate() + reservation.getDuration() - 1);
+	}
+	
+	//------------------------------------------------------
+	// spanOf
+	//
+	// PURPOSE:	get the number of days between the lowest and highest dates
+	//			a reservation covers
+	//------------------------------------------------------
+	private static long spanOf(Reservation reservation) { return highDateOf(reservation) - lowDateOf(reservation); }
+	
+	//-----------------------------------------
+	// CLASS: Inner class Partition
+	//
+	// REMARKS: The reservations starting in one run of PARTITION_DAYS days,
+	//			ordered by the partition key
+	//-----------------------------------------
+
+	private static class Partition extends OrderedItem
+	{
+		private final int key;            //start date / PARTITION_DAYS of every reservation held
+		private OrderedList reservations; //the reservations, by start date
+		private long lowDate;             //lowest date any reservation held covers
+		private long highDate;            //highest date any reservation held covers
+		
+		//------------------------------------------------------
+		// Partition Constructor
+		//
+		// PURPOSE:	Initializes this object with no reservations
+		// PARAMETERS:
+		//		int: the partition key
+		//------------------------------------------------------
+		public Partition(int key)
+		{
+			this.key = key;
+			reservations = new OrderedList();
+			lowDate = Long.MAX_VALUE;
+			highDate = Long.MIN_VALUE;
+		}
+		
+		//------------------------------------------------------
+		// compareTo (implements)
+		//
+		// PURPOSE:	compares two partitions by key
+		//------------------------------------------------------
+		public int compareTo(OrderedItem other)
+		{
+			int compareResult = 0;
+			if (other instanceof Partition)
+			    compareResult = Integer.compare(key, ((Partition)other).key);
+			else
+			    (new InvalidObjectTypeError("ReservationPartitions.Partition.compareTo()", other.getClass().getCanonicalName(), "Partition")).throwError();
+			
+			return compareResult;
+		}
+		
+		//------------------------------------------------------
+		// insert
+		//
+		// PURPOSE:	add a reservation and widen the covered dates to include it
+		//------------------------------------------------------
+		public void insert(Reservation reservation)
+		{
+			reservations.insert(reservation);
+			lowDate = Math.min(lowDate, lowDateOf(reservation));
+			highDate = Math.max(highDate, highDateOf(reservation));
+		}
+		
+		//------------------------------------------------------
+		// remove
+		//
+		// PURPOSE:	remove a reservation (compared by reference) and narrow
+		//			the covered dates to those left. The reservations left are
+		//			only walked if the removed one covered the lowest or highest
+		//			date.
+		// Returns:
+		//		boolean: true if the reservation was held
+		//------------------------------------------------------
+		public boolean remove(Reservation reservation)
+		{
+			//reservations starting the same day compare equal, so remove this very one
+			boolean isRemoved = reservations.removeItem(reservation);
+			
+			if (isRemoved && (lowDateOf(reservation) == lowDate || highDateOf(reservation) == highDate))
+			{
+				lowDate = Long.MAX_VALUE;
+				highDate = Long.MIN_VALUE;
+				ListCursor remaining = reservations.getCursor();
+				while (remaining.hasNext())
+				{
+					Reservation other = (Reservation)remaining.next();
+					lowDate = Math.min(lowDate, lowDateOf(other));
+					highDate = Math.max(highDate, highDateOf(other));
+				}//while
+			}//if
+			return isRemoved;
+		}
+		
+	} //Partition
+	
+	//-----------------------------------------
+	// CLASS: Inner class SpanCount
+	//
+	// REMARKS: The number of reservations held with one span, ordered by
+	//			span
+	//-----------------------------------------
+
+	private static class SpanCount extends OrderedItem
+	{
+		private final long span; //days between the covered dates
+		private int count;       //number of reservations with this span
+		
+		//------------------------------------------------------
+		// SpanCount Constructor
+		//
+		// PURPOSE:	Initializes this object with a count of one
+		// PARAMETERS:
+		//		long: the span
+		//------------------------------------------------------
+		public SpanCount(long span)
+		{
+			this.span = span;
+			count = 1;
+		}
+		
+		//------------------------------------------------------
+		// compareTo (implements)
+		//
+		// PURPOSE:	compares two span counts by span
+		//------------------------------------------------------
+		public int compareTo(OrderedItem other)
+		{
+			int compareResult = 0;
+			if (other instanceof SpanCount)
+			    compareResult = Long.compare(span, ((SpanCount)other).span);
+			else
+			    (new InvalidObjectTypeError("ReservationPartitions.SpanCount.compareTo()", other.getClass().getCanonicalName(), "SpanCount")).throwError();
+			
+			return compareResult;
+		}
+		
+	} //SpanCount
+
+} //ReservationPartitions
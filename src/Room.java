@@ -3,36 +3,41 @@
 //
 // Author: Cong Thanh Tran
 //
-// REMARKS: A class that contains information about individual Rooms in the project Hotels
-//
+// REMARKS: A class that contains information about individual Rooms in the project Hotels.
+//			A Room is a lightweight view onto its Hotel's room arrays: it only
+//			holds the hotel and the room number, and reads the rate and type
+//			from the hotel.
 //-----------------------------------------
 
 public class Room extends BaseEntity
 {
 	
-	//Room-specific data members - other data handled by superclass
-	private RoomType roomType; //the room type
-	private int hotelId;
-	private int rate; //cost per night of this room
+	//Room-specific data members - the room number is the superclass ID
+	private Hotel hotel; //the hotel holding this room's rate and type
 	
 	//------------------------------------------------------
 	// Room Constructor
 	//
 	// PURPOSE:	Initializes this object
 	// PARAMETERS:
-	//		int: hotel ID of the hotel that this room belongs to
+	//		Hotel: the hotel that this room belongs to
 	//		int: room number
-	//		String: room type (double, king or suite)
-	//		int: cost per night of this room
 	//------------------------------------------------------
-	Room(int hotelId, int roomNumber, String type, int rate)
+	Room(Hotel hotel, int roomNumber)
     {
-		super(roomNumber, (""+roomNumber)); //set the name (search key) of this room to the room number
-		this.hotelId = hotelId;
-		this.rate = rate;		
-		roomType = RoomType.convertStringToRoomType(type);
+		super(roomNumber, null); //the name (search key) is derived from the room number
+		this.hotel = hotel;
 	}
 	
+	//------------------------------------------------------
+	// getName (overrides)
+	//
+	// PURPOSE:	the name (search key) of a room is its room number
+	// Returns:
+	//		String: the room number as a String
+	//------------------------------------------------------
+	public String getName() { return ""+getId(); }
+	
 	//------------------------------------------------------
 	// getRate
 	//
@@ -40,7 +45,7 @@ public class Room extends BaseEntity
 	// Returns:
 	//		int: the rate for this room
 	//------------------------------------------------------
-	public int getRate() { return rate; }
+	public int getRate() { return hotel.getRateOfRoom(getId()); }
 
 	//------------------------------------------------------
 	// getRoomType
@@ -49,7 +54,7 @@ public class Room extends BaseEntity
 	// Returns:
 	//		RoomType: the type of this room
 	//------------------------------------------------------
-	public RoomType getRoomType() { return roomType; }
+	public RoomType getRoomType() { return hotel.getTypeOfRoom(getId()); }
 
 	//------------------------------------------------------
 	// toString (overrides)
@@ -61,11 +66,11 @@ public class Room extends BaseEntity
 	public String toString()
     {
 		//add room header info to the return String
-		String roomInfo = "Room " + getId() + " - " + roomType + "  rate: $" + rate + "\n";
+		String roomInfo = "Room " + getId() + " - " + getRoomType() + "  rate: $" + getRate() + "\n";
 		
 		//get the reservation list for this room and add this info
 		//to the return string
-		OrderedList reservationList = ReservationDatabase.getReservationsByRoomNumber(hotelId, getId());
+		OrderedList reservationList = ReservationDatabase.getReservationsByRoomNumber(hotel.getId(), getId());
 		if (reservationList.getSize() == 0)
 		    roomInfo += "Reservations: none\n";
 		else
@@ -73,13 +78,14 @@ public class Room extends BaseEntity
 			roomInfo += "Reservations:\n";
 			
 			//add reservation info to the string
-			for (int iReservation = 0; iReservation < reservationList.getSize(); iReservation++)
+			ListCursor cursor = reservationList.getCursor();
+			while (cursor.hasNext())
 			{
-				OrderedItem item = reservationList.getAt(iReservation);
+				ListItem item = cursor.next();
 				assert item instanceof Reservation;
 				Reservation reservation = (Reservation)item;
 				roomInfo += "    Start: " + reservation.getStartDate() + "  Duration: " + reservation.getDuration() + "  Customer: " + reservation.getCustomerName() + "\n";
-			}//for iReservation
+			}//while
 			
 		}//else
 		
@@ -0,0 +1,677 @@
+//-----------------------------------------
+// CLASS: RoomOccupancySet
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: The set of dates on which one room is occupied, stored in the
+//			manner of a Roaring bitmap. A date is split into a chunk key (its
+//			high 16 bits) and a position within the chunk (its low 16 bits).
+//			Only chunks holding some date are kept, each in whichever of
+//			three containers is smallest for its contents:
+//				- an array of the positions present (sparse chunks)
+//				- a bitmap of all 65536 positions (dense, scattered chunks)
+//				- a list of runs of consecutive positions (stays booked back
+//				  to back)
+//			Memory therefore follows the number and length of the stays, not
+//			the span of dates between them. Any int is a valid date.
+//-----------------------------------------
+
+public class RoomOccupancySet extends ListItem
+{
+	
+	public static final long NO_DATE = Long.MAX_VALUE; //returned when no date qualifies
+	
+	private static final int CHUNK_SIZE = 1 << 16;       //positions in one chunk
+	private static final int MAX_ARRAY_SIZE = 4096;      //largest array container
+	private static final int BITMAP_BYTES = CHUNK_SIZE / 8; //size of a bitmap container
+	private static final int INITIAL_CHUNKS = 4;         //chunk slots in a new set
+	
+	private int[] keys;              //chunk keys in ascending order
+	private Container[] containers;  //the container of each chunk
+	private int numChunks;           //number of chunks in use
+	
+	//------------------------------------------------------
+	// RoomOccupancySet Constructor
+	//
+	// PURPOSE:	Initializes this object as an empty set
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	RoomOccupancySet()
+	{
+		keys = new int[INITIAL_CHUNKS];
+		containers = new Container[INITIAL_CHUNKS];
+		numChunks = 0;
+	}
+	
+	//------------------------------------------------------
+	// isEmpty
+	//
+	// PURPOSE:	checks whether no date is in the set
+	// Returns:
+	//		boolean: true if the set is empty
+	//------------------------------------------------------
+	public boolean isEmpty() { return numChunks == 0; }
+	
+	//------------------------------------------------------
+	// contains
+	//
+	// PURPOSE:	checks whether a date is in the set
+	// PARAMETERS:
+	//		int: the date
+	// Returns:
+	//		boolean: true if the room is occupied on that date
+	//------------------------------------------------------
+	public boolean contains(int date) { return intersects(date, date); }
+	
+	//------------------------------------------------------
+	// addRange
+	//
+	// PURPOSE:	add every date of a range to the set
+	// PARAMETERS:
+	//		int: first date
+	//		int: last date (not before the first)
+	// Returns: none
+	//------------------------------------------------------
+	public void addRange(int firstDate, int lastDate)
+    {
+		int firstKey = keyOf(firstDate);
+		int lastKey = keyOf(lastDate);
+		for (int key = firstKey; key <= lastKey; key++)
+        {
+			int low = (key == firstKey) ? positionOf(firstDate) : 0;
+			int high = (key == lastKey) ? positionOf(lastDate) : CHUNK_SIZE - 1;
+			
+			int index = findChunk(key);
+			if (index >= 0)
+			    containers[index] = containers[index].toRuns().addRange(low, high).optimize();
+			else
+			    insertChunk(-index - 1, key, new RunContainer().addRange(low, high).optimize());
+		}//for key
+	}
+	
+	//------------------------------------------------------
+	// removeRange
+	//
+	// PURPOSE:	remove every date of a range from the set
+	// PARAMETERS:
+	//		int: first date
+	//		int: last date (not before the first)
+	// Returns: none
+	//------------------------------------------------------
+	public void removeRange(int firstDate, int lastDate)
+    {
+		int firstKey = keyOf(firstDate);
+		int lastKey = keyOf(lastDate);
+		
+		//only chunks that exist need visiting, however long the range
+		int index = findChunk(firstKey);
+		if (index < 0)
+		    index = -index - 1;
+		while (index < numChunks && keys[index] <= lastKey)
+        {
+			int key = keys[index];
+			int low = (key == firstKey) ? positionOf(firstDate) : 0;
+			int high = (key == lastKey) ? positionOf(lastDate) : CHUNK_SIZE - 1;
+			
+			RunContainer container = containers[index].toRuns().removeRange(low, high);
+			if (container.getCardinality() == 0)
+			    removeChunk(index);
+			else
+            {
+				containers[index] = container.optimize();
+				index++;
+			}//else
+		}//while
+	}
+	
+	//------------------------------------------------------
+	// intersects
+	//
+	// PURPOSE:	checks whether any date of a range is in the set
+	// PARAMETERS:
+	//		int: first date
+	//		int: last date (not before the first)
+	// Returns:
+	//		boolean: true if the room is occupied on some date of the range
+	//------------------------------------------------------
+	public boolean intersects(int firstDate, int lastDate)
+    {
+		return nextPresent(firstDate) <= lastDate;
+	}
+	
+	//------------------------------------------------------
+	// nextPresent
+	//
+	// PURPOSE:	find the first date in the set on or after a date
+	// PARAMETERS:
+	//		long: the date to start from
+	// Returns:
+	//		long: the date found, or NO_DATE if there is none
+	//------------------------------------------------------
+	public long nextPresent(long fromDate)
+    {
+		if (fromDate > Integer.MAX_VALUE)
+		    return NO_DATE;
+		
+		int fromKey = keyOf((int)fromDate);
+		int index = findChunk(fromKey);
+		if (index < 0)
+		    index = -index - 1;
+		for (; index < numChunks; index++)
+        {
+			int from = (keys[index] == fromKey) ? positionOf((int)fromDate) : 0;
+			int position = containers[index].nextPresent(from);
+			if (position >= 0)
+			    return dateOf(keys[index], position);
+		}//for index
+		return NO_DATE;
+	}
+	
+	//------------------------------------------------------
+	// nextAbsent
+	//
+	// PURPOSE:	find the first date not in the set on or after a date
+	// PARAMETERS:
+	//		long: the date to start from
+	// Returns:
+	//		long: the date found, which is past Integer.MAX_VALUE if every
+	//		later date is in the set
+	//------------------------------------------------------
+	public long nextAbsent(long fromDate)
+    {
+		long date = fromDate;
+		while (date <= Integer.MAX_VALUE)
+        {
+			int key = keyOf((int)date);
+			int index = findChunk(key);
+			if (index < 0)
+			    return date; //the whole chunk is absent
+			
+			int position = containers[index].nextAbsent(positionOf((int)date));
+			if (position < CHUNK_SIZE)
+			    return dateOf(key, position);
+			date = (long)dateOf(key, CHUNK_SIZE - 1) + 1; //chunk full from here, try the next
+		}//while
+		return date;
+	}
+	
+	//------------------------------------------------------
+	// findFreeWindow
+	//
+	// PURPOSE:	find the first date on or after a date from which the room
+	//			is free for a number of consecutive days
+	// PARAMETERS:
+	//		long: the date to start from
+	//		int: number of days (at least 1)
+	// Returns:
+	//		long: the first day of the window, or NO_DATE if there is none
+	//------------------------------------------------------
+	public long findFreeWindow(long fromDate, int numDays)
+    {
+		long date = fromDate;
+		while (date + numDays - 1 <= Integer.MAX_VALUE)
+        {
+			long occupiedDate = nextPresent(date);
+			if (occupiedDate > date + numDays - 1)
+			    return date;
+			date = nextAbsent(occupiedDate);
+		}//while
+		return NO_DATE;
+	}
+	
+	//------------------------------------------------------
+	// keyOf
+	//
+	// PURPOSE:	get the chunk key of a date. The sign bit is flipped so that
+	//			keys sort in the same order as the dates.
+	//------------------------------------------------------
+	private static int keyOf(int date) { return (date ^ Integer.MIN_VALUE) >>> 16; }
+	
+	//------------------------------------------------------
+	// positionOf
+	//
+	// PURPOSE:	get the position of a date within its chunk
+	//------------------------------------------------------
+	private static int positionOf(int date) { return date & (CHUNK_SIZE - 1); }
+	
+	//------------------------------------------------------
+	// dateOf
+	//
+	// PURPOSE:	get the date at a position of a chunk
+	//------------------------------------------------------
+	private static int dateOf(int key, int position) { return ((key << 16) | position) ^ Integer.MIN_VALUE; }
+	
+	//------------------------------------------------------
+	// findChunk
+	//
+	// PURPOSE:	binary search for a chunk key
+	// PARAMETERS:
+	//		int: the chunk key
+	// Returns:
+	//		int: its index, or -(insertion point) - 1 if it is not present
+	//------------------------------------------------------
+	private int findChunk(int key)
+    {
+		int low = 0;
+		int high = numChunks - 1;
+		while (low <= high)
+        {
+			int middle = (low + high) >>> 1;
+			if (keys[middle] < key)
+			    low = middle + 1;
+			else if (keys[middle] > key)
+			    high = middle - 1;
+			else
+			    return middle;
+		}//while
+		return -low - 1;
+	}
+	
+	//------------------------------------------------------
+	// insertChunk
+	//
+	// PURPOSE:	insert a chunk at an index, growing the arrays as needed
+	//------------------------------------------------------
+	private void insertChunk(int index, int key, Container container)
+    {
+		if (numChunks == keys.length)
+        {
+			int[] newKeys = new int[numChunks << 1];
+			Container[] newContainers = new Container[numChunks << 1];
+			System.arraycopy(keys, 0, newKeys, 0, numChunks);
+			System.arraycopy(containers, 0, newContainers, 0, numChunks);
+			keys = newKeys;
+			containers = newContainers;
+		}//if
+		
+		System.arraycopy(keys, index, keys, index + 1, numChunks - index);
+		System.arraycopy(containers, index, containers, index + 1, numChunks - index);
+		keys[index] = key;
+		containers[index] = container;
+		numChunks++;
+	}
+	
+	//------------------------------------------------------
+	// removeChunk
+	//
+	// PURPOSE:	remove the chunk at an index
+	//------------------------------------------------------
+	private void removeChunk(int index)
+    {
+		System.arraycopy(keys, index + 1, keys, index, numChunks - index - 1);
+		System.arraycopy(containers, index + 1, containers, index, numChunks - index - 1);
+		numChunks--;
+		containers[numChunks] = null;
+	}
+	
+	//-----------------------------------------
+	// CLASS: Inner class Container
+	//
+	// REMARKS: The positions present in one chunk. Containers are never
+	//			changed once built: updates go through the run form and come
+	//			back as a new container of the best kind.
+	//-----------------------------------------
+
+	private static abstract class Container
+    {
+		
+		//------------------------------------------------------
+		// getCardinality (abstract)
+		//
+		// PURPOSE:	get the number of positions present
+		//------------------------------------------------------
+		abstract int getCardinality();
+		
+		//------------------------------------------------------
+		// nextPresent (abstract)
+		//
+		// PURPOSE:	get the first position present at or after a position,
+		//			or -1 if there is none
+		//------------------------------------------------------
+		abstract int nextPresent(int from);
+		
+		//------------------------------------------------------
+		// nextAbsent (abstract)
+		//
+		// PURPOSE:	get the first position absent at or after a position,
+		//			or CHUNK_SIZE if there is none
+		//------------------------------------------------------
+		abstract int nextAbsent(int from);
+		
+		//------------------------------------------------------
+		// toRuns (abstract)
+		//
+		// PURPOSE:	get the same positions as a run container
+		//------------------------------------------------------
+		abstract RunContainer toRuns();
+		
+	} //Container
+	
+	//-----------------------------------------
+	// CLASS: Inner class ArrayContainer
+	//
+	// REMARKS: The positions present, in ascending order
+	//-----------------------------------------
+
+	private static class ArrayContainer extends Container
+    {
+		
+		private char[] positions; //positions present, ascending (char is an unsigned 16 bit value)
+		
+		//------------------------------------------------------
+		// ArrayContainer Constructor
+		//
+		// PURPOSE:	Initializes this object from runs
+		// PARAMETERS:
+		//		RunContainer: the runs to expand
+		//------------------------------------------------------
+		ArrayContainer(RunContainer runs)
+        {
+			positions = new char[runs.getCardinality()];
+			int count = 0;
+			for (int run = 0; run < runs.numRuns; run++)
+			    for (int position = runs.starts[run]; position <= runs.ends[run]; position++)
+			        positions[count++] = (char)position;
+		}
+		
+		int getCardinality() { return positions.length; }
+		
+		int nextPresent(int from)
+        {
+			int index = firstIndexAtLeast(from);
+			return (index < positions.length) ? positions[index] : -1;
+		}
+		
+		int nextAbsent(int from)
+        {
+			int index = firstIndexAtLeast(from);
+			int position = from;
+			while (index < positions.length && positions[index] == position)
+            {
+				index++;
+				position++;
+			}//while
+			return position;
+		}
+		
+		RunContainer toRuns()
+        {
+			RunContainer runs = new RunContainer();
+			int index = 0;
+			while (index < positions.length)
+            {
+				int start = positions[index];
+				int end = start;
+				while (index + 1 < positions.length && positions[index + 1] == end + 1)
+                {
+					index++;
+					end++;
+				}//while
+				runs.appendRun(start, end);
+				index++;
+			}//while
+			return runs;
+		}
+		
+		//------------------------------------------------------
+		// firstIndexAtLeast
+		//
+		// PURPOSE:	binary search for the first position not below a value
+		//------------------------------------------------------
+		private int firstIndexAtLeast(int value)
+        {
+			int low = 0;
+			int high = positions.length;
+			while (low < high)
+            {
+				int middle = (low + high) >>> 1;
+				if (positions[middle] < value)
+				    low = middle + 1;
+				else
+				    high = middle;
+			}//while
+			return low;
+		}
+		
+	} //ArrayContainer
+	
+	//-----------------------------------------
+	// CLASS: Inner class BitmapContainer
+	//
+	// REMARKS: One bit per position of the chunk
+	//-----------------------------------------
+
+	private static class BitmapContainer extends Container
+    {
+		
+		private long[] words;    //bit n of word n / 64 for position n
+		private int cardinality; //number of bits set
+		
+		//------------------------------------------------------
+		// BitmapContainer Constructor
+		//
+		// PURPOSE:	Initializes this object from runs
+		// PARAMETERS:
+		//		RunContainer: the runs to set
+		//------------------------------------------------------
+		BitmapContainer(RunContainer runs)
+        {
+			words = new long[CHUNK_SIZE >>> 6];
+			for (int run = 0; run < runs.numRuns; run++)
+			    for (int position = runs.starts[run]; position <= runs.ends[run]; position++)
+			        words[position >>> 6] |= 1L << position;
+			cardinality = runs.getCardinality();
+		}
+		
+		int getCardinality() { return cardinality; }
+		
+		int nextPresent(int from)
+        {
+			int word = from >>> 6;
+			long bits = words[word] & (-1L << from);
+			while (bits == 0)
+            {
+				if (++word == words.length)
+				    return -1;
+				bits = words[word];
+			}//while
+			return (word << 6) + Long.numberOfTrailingZeros(bits);
+		}
+		
+		int nextAbsent(int from)
+        {
+			int word = from >>> 6;
+			long bits = ~words[word] & (-1L << from);
+			while (bits == 0)
+            {
+				if (++word == words.length)
+				    return CHUNK_SIZE;
+				bits = ~words[word];
+			}//while
+			return (word << 6) + Long.numberOfTrailingZeros(bits);
+		}
+		
+		RunContainer toRuns()
+        {
+			RunContainer runs = new RunContainer();
+			int start = nextPresent(0);
+			while (start >= 0)
+            {
+				int end = nextAbsent(start) - 1;
+				runs.appendRun(start, end);
+				start = (end + 1 < CHUNK_SIZE) ? nextPresent(end + 1) : -1;
+			}//while
+			return runs;
+		}
+		
+	} //BitmapContainer
+	
+	//-----------------------------------------
+	// CLASS: Inner class RunContainer
+	//
+	// REMARKS: Runs of consecutive positions, ascending, with no two runs
+	//			overlapping or touching
+	//-----------------------------------------
+
+	private static class RunContainer extends Container
+    {
+		
+		private int[] starts; //first position of each run
+		private int[] ends;   //last position of each run
+		private int numRuns;  //number of runs in use
+		
+		//------------------------------------------------------
+		// RunContainer Constructor
+		//
+		// PURPOSE:	Initializes this object with no runs
+		//------------------------------------------------------
+		RunContainer()
+        {
+			starts = new int[2];
+			ends = new int[2];
+			numRuns = 0;
+		}
+		
+		int getCardinality()
+        {
+			int cardinality = 0;
+			for (int run = 0; run < numRuns; run++)
+			    cardinality += ends[run] - starts[run] + 1;
+			return cardinality;
+		}
+		
+		int nextPresent(int from)
+        {
+			int run = firstRunEndingAtLeast(from);
+			return (run < numRuns) ? Math.max(starts[run], from) : -1;
+		}
+		
+		int nextAbsent(int from)
+        {
+			int run = firstRunEndingAtLeast(from);
+			return (run < numRuns && starts[run] <= from) ? ends[run] + 1 : from;
+		}
+		
+		RunContainer toRuns() { return this; }
+		
+		//------------------------------------------------------
+		// appendRun
+		//
+		// PURPOSE:	add a run after every existing run, not touching them
+		//------------------------------------------------------
+		void appendRun(int start, int end)
+        {
+			if (numRuns == starts.length)
+            {
+				int[] newStarts = new int[numRuns << 1];
+				int[] newEnds = new int[numRuns << 1];
+				System.arraycopy(starts, 0, newStarts, 0, numRuns);
+				System.arraycopy(ends, 0, newEnds, 0, numRuns);
+				starts = newStarts;
+				ends = newEnds;
+			}//if
+			starts[numRuns] = start;
+			ends[numRuns] = end;
+			numRuns++;
+		}
+		
+		//------------------------------------------------------
+		// addRange
+		//
+		// PURPOSE:	get a new run container with a range of positions added
+		//------------------------------------------------------
+		RunContainer addRange(int low, int high)
+        {
+			RunContainer result = new RunContainer();
+			int run = 0;
+			
+			//runs wholly before the range, not touching it
+			while (run < numRuns && ends[run] < low - 1)
+            {
+				result.appendRun(starts[run], ends[run]);
+				run++;
+			}//while
+			
+			//runs overlapping or touching the range merge with it
+			int start = low;
+			int end = high;
+			while (run < numRuns && starts[run] <= high + 1)
+            {
+				start = Math.min(start, starts[run]);
+				end = Math.max(end, ends[run]);
+				run++;
+			}//while
+			result.appendRun(start, end);
+			
+			//runs wholly after the range
+			for (; run < numRuns; run++)
+			    result.appendRun(starts[run], ends[run]);
+			return result;
+		}
+		
+		//------------------------------------------------------
+		// removeRange
+		//
+		// PURPOSE:	get a new run container with a range of positions removed
+		//------------------------------------------------------
+		RunContainer removeRange(int low, int high)
+        {
+			RunContainer result = new RunContainer();
+			for (int run = 0; run < numRuns; run++)
+            {
+				if (ends[run] < low || starts[run] > high)
+				    result.appendRun(starts[run], ends[run]);
+				else
+                {
+					//keep the parts of the run outside the range
+					if (starts[run] < low)
+					    result.appendRun(starts[run], low - 1);
+					if (ends[run] > high)
+					    result.appendRun(high + 1, ends[run]);
+				}//else
+			}//for run
+			return result;
+		}
+		
+		//------------------------------------------------------
+		// optimize
+		//
+		// PURPOSE:	get the smallest container holding these positions
+		//------------------------------------------------------
+		Container optimize()
+        {
+			int cardinality = getCardinality();
+			int runBytes = 8 * numRuns;
+			int arrayBytes = 2 * cardinality;
+			
+			if (runBytes <= arrayBytes && runBytes <= BITMAP_BYTES)
+			    return this;
+			if (cardinality <= MAX_ARRAY_SIZE && arrayBytes <= BITMAP_BYTES)
+			    return new ArrayContainer(this);
+			return new BitmapContainer(this);
+		}
+		
+		//------------------------------------------------------
+		// firstRunEndingAtLeast
+		//
+		// PURPOSE:	binary search for the first run ending at or after a position
+		//------------------------------------------------------
+		private int firstRunEndingAtLeast(int position)
+        {
+			int low = 0;
+			int high = numRuns;
+			while (low < high)
+            {
+				int middle = (low + high) >>> 1;
+				if (ends[middle] < position)
+				    low = middle + 1;
+				else
+				    high = middle;
+			}//while
+			return low;
+		}
+		
+	} //RunContainer
+	
+}//RoomOccupancySet
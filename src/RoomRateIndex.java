@@ -0,0 +1,145 @@
+//-----------------------------------------
+// CLASS: RoomRateIndex
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: The room numbers of one hotel sorted by rate, for the whole
+//			hotel and for each room type. Rates never change once a hotel
+//			is loaded, so the orders are built once. Rooms of equal rate are
+//			ordered by descending room number, the order the reservation
+//			processor has always picked them in. Running totals of the rates
+//			by room number give the cost of any run of rooms in O(1).
+//-----------------------------------------
+
+public class RoomRateIndex extends ListItem
+{
+	
+	private int[] roomsByRate;         //every room number, cheapest first
+	private int[][] roomsByRateByType; //the room numbers of each type, cheapest first, by RoomType code
+	private long[] rateSums;           //total rate of rooms 1..n at index n
+	
+	//------------------------------------------------------
+	// RoomRateIndex Constructor
+	//
+	// PURPOSE:	Initializes this object by sorting the rooms of a hotel
+	// PARAMETERS:
+	//		int: number of rooms
+	//		int[]: rate of each room, indexed by room number
+	//		byte[]: RoomType code of each room, indexed by room number
+	// Returns: None
+	//------------------------------------------------------
+	RoomRateIndex(int numRooms, int[] rates, byte[] types)
+	{
+		roomsByRate = new int[numRooms];
+		for (int roomNumber = 1; roomNumber <= numRooms; roomNumber++)
+		    roomsByRate[roomNumber - 1] = roomNumber;
+		sortByRate(roomsByRate, rates);
+		
+		//split the sorted rooms by type, which keeps each type's rooms in order
+		int numTypes = RoomType.values().length;
+		int[] numRoomsOfType = new int[numTypes];
+		for (int roomNumber = 1; roomNumber <= numRooms; roomNumber++)
+		    numRoomsOfType[types[roomNumber]]++;
+		
+		roomsByRateByType = new int[numTypes][];
+		for (int code = 0; code < numTypes; code++)
+		    roomsByRateByType[code] = new int[numRoomsOfType[code]];
+		int[] numFilled = new int[numTypes];
+		for (int rank = 0; rank < numRooms; rank++)
+        {
+			int code = types[roomsByRate[rank]];
+			roomsByRateByType[code][numFilled[code]++] = roomsByRate[rank];
+		}//for rank
+		
+		rateSums = new long[numRooms + 1];
+		for (int roomNumber = 1; roomNumber <= numRooms; roomNumber++)
+		    rateSums[roomNumber] = rateSums[roomNumber - 1] + rates[roomNumber];
+	}
+	
+	//------------------------------------------------------
+	// getRoomsByRate
+	//
+	// PURPOSE:	get room numbers, cheapest first. The array is shared and
+	//			must not be changed.
+	// PARAMETERS:
+	//		RoomType: type of the rooms, or null for every room
+	// Returns:
+	//		int[]: the room numbers
+	//------------------------------------------------------
+	public int[] getRoomsByRate(RoomType roomType)
+    {
+		if (roomType == null)
+		    return roomsByRate;
+		return roomsByRateByType[roomType.getCode()];
+	}
+	
+	//------------------------------------------------------
+	// getRateSum
+	//
+	// PURPOSE:	get the total rate of a run of consecutively numbered rooms
+	// PARAMETERS:
+	//		int: first room number of the run
+	//		int: last room number of the run
+	// Returns:
+	//		long: the sum of their rates
+	//------------------------------------------------------
+	public long getRateSum(int firstRoomNumber, int lastRoomNumber)
+    {
+		return rateSums[lastRoomNumber] - rateSums[firstRoomNumber - 1];
+	}
+	
+	//------------------------------------------------------
+	// sortByRate
+	//
+	// PURPOSE:	sort room numbers by ascending rate, then descending room
+	//			number, with a bottom-up merge sort
+	// PARAMETERS:
+	//		int[]: the room numbers
+	//		int[]: rate of each room, indexed by room number
+	// Returns: none
+	//------------------------------------------------------
+	private static void sortByRate(int[] roomNumbers, int[] rates)
+    {
+		int length = roomNumbers.length;
+		int[] source = roomNumbers;
+		int[] target = new int[length];
+		for (int width = 1; width < length; width <<= 1)
+        {
+			for (int low = 0; low < length; low += width << 1)
+            {
+				int middle = Math.min(low + width, length);
+				int high = Math.min(low + (width << 1), length);
+				int left = low;
+				int right = middle;
+				for (int index = low; index < high; index++)
+                {
+					if (right >= high || (left < middle && !isBefore(source[right], source[left], rates)))
+					    target[index] = source[left++];
+					else
+					    target[index] = source[right++];
+				}//for index
+			}//for low
+			
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}//for width
+		
+		if (source != roomNumbers)
+		    System.arraycopy(source, 0, roomNumbers, 0, length);
+	}
+	
+	//------------------------------------------------------
+	// isBefore
+	//
+	// PURPOSE:	checks whether one room comes before another: it is cheaper,
+	//			or as cheap with a higher room number
+	//------------------------------------------------------
+	private static boolean isBefore(int roomNumber, int otherRoomNumber, int[] rates)
+    {
+		if (rates[roomNumber] != rates[otherRoomNumber])
+		    return rates[roomNumber] < rates[otherRoomNumber];
+		return roomNumber > otherRoomNumber;
+	}
+	
+}//RoomRateIndex
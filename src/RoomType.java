@@ -19,6 +19,10 @@ public enum RoomType {
 	//the string version of this RoomType (used in toString)
 	private final String strVersion;
 	
+	//every RoomType by ordinal, so that a stored code can be turned back
+	//into a RoomType without the copy made by values()
+	private static final RoomType[] BY_CODE = values();
+	
 	//------------------------------------------------------
 	// RoomType Constructor
 	//
@@ -50,6 +54,27 @@ public enum RoomType {
 		    return RoomType.UNSPECIFIED; //The default value if the room String is invalid
 	}
 	
+	//------------------------------------------------------
+	// getCode
+	//
+	// PURPOSE:	returns a compact code for this RoomType, for storing room
+	//			types in primitive arrays
+	// Returns:
+	//		byte: the code of this RoomType
+	//------------------------------------------------------
+	public byte getCode() { return (byte)ordinal(); }
+	
+	//------------------------------------------------------
+	// fromCode
+	//
+	// PURPOSE:	converts a code returned by getCode back to its RoomType
+	// PARAMETERS: 
+	//			byte: the code of a RoomType
+	// Returns:
+	//		RoomType: the RoomType with that code
+	//------------------------------------------------------
+	public static RoomType fromCode(byte code) { return BY_CODE[code]; }
+	
 	//------------------------------------------------------
 	// toString (overrides)
 	// Returns:
@@ -3,11 +3,19 @@
 //
 // Author: Cong Thanh Tran
 //
-// REMARKS: Implements a simple singly-linked searchable ordered list 
+// REMARKS: Implements a simple searchable ordered list. Short lists are
+//			searched by walking them; once a list grows past INDEX_SIZE a hash
+//			index of the keys is built next to it, and it is dropped again when
+//			the list shrinks below UNINDEX_SIZE.
 //-----------------------------------------
 
 public class SearchableOrderedList extends OrderedList {
 	
+	public static final int INDEX_SIZE = 32;  //build the key index above this size
+	public static final int UNINDEX_SIZE = 8; //drop the key index below this size
+	
+	private HashIndex keyIndex;     //key -> item index, or null while the list is short
+	
 	//------------------------------------------------------
 	// SearchableOrderedList Constructor
 	//
@@ -15,7 +23,21 @@ public class SearchableOrderedList extends OrderedList {
 	// PARAMETERS: None
 	// Returns: None
 	//------------------------------------------------------
-	SearchableOrderedList() { super(); }
+	SearchableOrderedList() { this(new AdaptiveOrderedStorage()); }
+	
+	//------------------------------------------------------
+	// SearchableOrderedList Constructor
+	//
+	// PURPOSE:	Initializes this object with the given storage
+	// PARAMETERS:
+	//		OrderedStorage: the (empty) storage that will hold the items
+	// Returns: None
+	//------------------------------------------------------
+	SearchableOrderedList(OrderedStorage storage)
+	{
+		super(storage);
+		keyIndex = null;
+	}
 	
 	//------------------------------------------------------
 	// insert (overrides)
@@ -27,7 +49,7 @@ public class SearchableOrderedList extends OrderedList {
 		//check if the underlying item is really a SearchableOrderedItem.
 		//if so then add it to the list, else end program with an error
 		if (item instanceof SearchableOrderedItem)
-		    super.insert(item);
+		    insert((SearchableOrderedItem)item);
 		else
 			(new InvalidObjectTypeError("SearchableOrderedList.insert()", item.getClass().getCanonicalName(), "SearchableOrderedItem")).throwError();
 	}
@@ -35,13 +57,17 @@ public class SearchableOrderedList extends OrderedList {
 	//------------------------------------------------------
 	// insert
 	//
-	// PURPOSE:	insert item in ascending order
+	// PURPOSE:	insert item in ascending order and index its key
 	// PARAMETERS:
 	//		SearchableOrderedItem: item to insert
 	//------------------------------------------------------
 	public void insert( SearchableOrderedItem item )
     {
-		super.insert(item); 
+		super.insert(item);
+		if ( keyIndex != null )
+		    keyIndex.put(item);
+		else if ( getSize() > INDEX_SIZE )
+		    buildIndex();
 	}
 	
 	//------------------------------------------------------
@@ -75,8 +101,60 @@ public class SearchableOrderedList extends OrderedList {
 		//simple type checking with an assertion is used
 		OrderedItem item = super.removeAt(index);
 		assert item instanceof SearchableOrderedItem;
+		if ( keyIndex != null )
+		{
+			keyIndex.remove(( SearchableOrderedItem )item);
+			dropIndexIfShort();
+		}//if
 		return ( SearchableOrderedItem )item;
 	}
+	
+	//------------------------------------------------------
+	// removeItem (overrides)
+	//
+	// PURPOSE:	remove the given item itself, not just one equal to it or
+	//			with its key
+	// PARAMETERS:
+	//		OrderedItem: the item to remove
+	// Returns:
+	//		boolean: true if the item was found and removed
+	//------------------------------------------------------
+	public boolean removeItem( OrderedItem item )
+    {
+		boolean isRemoved = super.removeItem(item);
+		if ( isRemoved && keyIndex != null )
+		{
+			keyIndex.remove(( SearchableOrderedItem )item);
+			dropIndexIfShort();
+		}//if
+		return isRemoved;
+	}
+	
+	//------------------------------------------------------
+	// getCursor (overrides)
+	//
+	// PURPOSE:	get a forward cursor. While the list is indexed the cursor's
+	//			remove() also updates the key index.
+	// PARAMETERS: none
+	// Returns:
+	//		ListCursor: a cursor positioned before the first item
+	//------------------------------------------------------
+	public ListCursor getCursor()
+	{
+		ListCursor cursor = super.getCursor();
+		return keyIndex == null ? cursor : new IndexedCursor(cursor);
+	}
+	
+	//------------------------------------------------------
+	// getSnapshot (overrides)
+	//
+	// PURPOSE:	get a separate searchable list holding the current items. Its
+	//			key index is built on its first lookup if it is large enough.
+	// PARAMETERS: none
+	// Returns:
+	//		SearchableOrderedList: the snapshot
+	//------------------------------------------------------
+	public SearchableOrderedList getSnapshot() { return new SearchableOrderedList(getStorageSnapshot()); }
 
 	//------------------------------------------------------
 	// hasKey
@@ -89,16 +167,9 @@ public class SearchableOrderedList extends OrderedList {
 	//------------------------------------------------------
 	public boolean hasKey( String key )
     {
-		boolean isFound = false;
-		int index = 0;
-		while ( !isFound && index < getSize() )
-        {
-			if ( key.equals( getAt(index).getKey() ) )
-			    isFound = true;
-			index++;
-		}//while
-		
-		return isFound;
+		if ( keyIndex != null || buildIndexIfLarge() )
+		    return keyIndex.containsKey(key);
+		return getByKey(key) != null;
 	}
 	
 	//------------------------------------------------------
@@ -123,17 +194,20 @@ public class SearchableOrderedList extends OrderedList {
 	//------------------------------------------------------
 	public SearchableOrderedItem removeByKey( String key )
     {
-		boolean isFound = false;
-		int index = 0;
+		if ( keyIndex != null || buildIndexIfLarge() )
+		    return removeIndexedByKey(key);
+		
 		SearchableOrderedItem removedItem = null;
-		while ( !isFound && index < getSize() )
+		ListCursor cursor = getCursor();
+		while ( removedItem == null && cursor.hasNext() )
         {
-			if ( key.equals( getAt(index).getKey() ) )
+			ListItem item = cursor.next();
+			assert item instanceof SearchableOrderedItem;
+			if ( key.equals( ((SearchableOrderedItem)item).getKey() ) )
 			{
-				isFound = true;
-				removedItem = removeAt( index );
+				removedItem = (SearchableOrderedItem)item;
+				cursor.remove();
 			}//if
-			index++;
 		}//while
 		
 		return removedItem;
@@ -160,22 +234,149 @@ public class SearchableOrderedList extends OrderedList {
 	//		SearchableOrderedItem: the fetched item or null if item not found
 	//------------------------------------------------------
 	public SearchableOrderedItem getByKey(String key){
-		//loop over the items and check their keys against the one given.
+		if ( keyIndex != null || buildIndexIfLarge() )
+		    return keyIndex.get(key);
+		
+		//walk the items with a cursor and check their keys against the one given.
 		//return reference to the first item found in the list.
-		boolean isFound = false;
-		int index = 0;
 		SearchableOrderedItem fetchedItem = null;
-		while ( !isFound && index < getSize() )
+		ListCursor cursor = getCursor();
+		while ( fetchedItem == null && cursor.hasNext() )
         {
-			if ( key.equals( getAt(index).getKey() ) )
-			{
-				isFound = true;
-				fetchedItem = getAt( index );
-			}//if
-			index++;
+			ListItem item = cursor.next();
+			assert item instanceof SearchableOrderedItem;
+			if ( key.equals( ((SearchableOrderedItem)item).getKey() ) )
+			    fetchedItem = (SearchableOrderedItem)item;
 		}//while
 		
 		return fetchedItem;
 	}
 	
+	//------------------------------------------------------
+	// removeIndexedByKey
+	//
+	// PURPOSE:	removes the first item with the given key while the list is
+	//			indexed. The item is found through the index and then removed
+	//			by reference.
+	// PARAMETERS:
+	//		String: the search key
+	// Returns:
+	//		SearchableOrderedItem: reference to the removed item or null if item not found
+	//------------------------------------------------------
+	private SearchableOrderedItem removeIndexedByKey( String key )
+    {
+		SearchableOrderedItem removedItem = keyIndex.get(key);
+		if ( removedItem != null )
+		    removeItem(( OrderedItem )removedItem);
+		
+		return removedItem;
+	}
+	
+	//------------------------------------------------------
+	// buildIndex
+	//
+	// PURPOSE:	index the keys of every item currently in the list
+	// PARAMETERS: none
+	// Returns: none
+	//------------------------------------------------------
+	private void buildIndex()
+    {
+		//items are added in list order so the index keeps first-in-list lookups
+		HashIndex newIndex = new HashIndex();
+		ListCursor cursor = super.getCursor();
+		while ( cursor.hasNext() )
+		    newIndex.put((SearchableOrderedItem)cursor.next());
+		keyIndex = newIndex;
+	}
+	
+	//------------------------------------------------------
+	// buildIndexIfLarge
+	//
+	// PURPOSE:	build the key index if the list is unindexed but large, as
+	//			happens for a snapshot of a large list
+	// PARAMETERS: none
+	// Returns:
+	//		boolean: true if the index was built
+	//------------------------------------------------------
+	private boolean buildIndexIfLarge()
+    {
+		if ( getSize() <= INDEX_SIZE )
+		    return false;
+		buildIndex();
+		return true;
+	}
+	
+	//------------------------------------------------------
+	// dropIndexIfShort
+	//
+	// PURPOSE:	discard the key index once the list is short enough to walk
+	// PARAMETERS: none
+	// Returns: none
+	//------------------------------------------------------
+	private void dropIndexIfShort()
+    {
+		if ( getSize() < UNINDEX_SIZE )
+		    keyIndex = null;
+	}
+	
+	//-----------------------------------------
+	// CLASS: Inner class IndexedCursor
+	//
+	// REMARKS: Wraps the storage's cursor so that removals through it
+	//			are reflected in the key index
+	//-----------------------------------------
+
+	private class IndexedCursor extends ListCursor
+    {
+		
+		private ListCursor chainCursor; //the underlying cursor over the storage
+		private ListItem currentItem;   //item last returned by next()
+		
+		//------------------------------------------------------
+		// IndexedCursor Constructor
+		//
+		// PURPOSE:	Initializes this object
+		// PARAMETERS:
+		//		ListCursor: the cursor over the storage
+		//------------------------------------------------------
+		public IndexedCursor(ListCursor chainCursor)
+        {
+			this.chainCursor = chainCursor;
+			currentItem = null;
+		}
+		
+		//------------------------------------------------------
+		// hasNext (implements)
+		//
+		// PURPOSE:	checks whether there are items left to visit
+		//------------------------------------------------------
+		public boolean hasNext() { return chainCursor.hasNext(); }
+		
+		//------------------------------------------------------
+		// next (implements)
+		//
+		// PURPOSE:	moves to the next item and returns it
+		//------------------------------------------------------
+		public ListItem next()
+        {
+			currentItem = chainCursor.next();
+			return currentItem;
+		}
+		
+		//------------------------------------------------------
+		// remove (implements)
+		//
+		// PURPOSE:	removes the last returned item from the storage and the
+		//			index. The index is not dropped here so that it cannot
+		//			disappear in the middle of a walk.
+		//------------------------------------------------------
+		public void remove()
+        {
+			chainCursor.remove();
+			if ( keyIndex != null )
+			    keyIndex.remove((SearchableOrderedItem)currentItem);
+		}
+		
+	} //IndexedCursor
+	
 }//SearchableOrderedList
@@ -10,6 +10,7 @@ public class SimpleLinkedList extends ListItem
 {
 	
 	private Node head; //first node in the list
+	private Node tail; //last node in the list, so appending does not walk
 	private int size;  //number of elements in this list
 	
 	//------------------------------------------------------
@@ -22,6 +23,7 @@ public class SimpleLinkedList extends ListItem
 	SimpleLinkedList()
 	{
 		head = null;
+		tail = null;
 		size = 0; 
 	}
 		
@@ -51,7 +53,17 @@ public class SimpleLinkedList extends ListItem
 		
 		//insert the item
 		if ( index == 0 )
+        {
 		    head = new Node(item, head);
+		    if ( tail == null )
+		        tail = head;
+		}//if
+		else if ( index == size )
+        {
+			//appending goes straight to the tail
+			tail.setNext( new Node( item, null ) );
+			tail = tail.getNext();
+		}//else if
 		else
         {
 			Node prev = head;
@@ -83,6 +95,8 @@ public class SimpleLinkedList extends ListItem
 		{
 			removedNode = head;
 			head = head.getNext();
+			if ( head == null )
+			    tail = null;
 		}//if
 		else
         {
@@ -91,6 +105,8 @@ public class SimpleLinkedList extends ListItem
 			    prev = prev.getNext();
 			removedNode = prev.getNext();
 			prev.setNext( prev.getNext().getNext() );
+			if ( removedNode == tail )
+			    tail = prev;
 		}//else		
 		
 		size--;
@@ -157,6 +173,52 @@ public class SimpleLinkedList extends ListItem
 		return itemNode.getData();
 	}
 	
+	//------------------------------------------------------
+	// getCursor
+	//
+	// PURPOSE:	get a forward cursor positioned before the first item
+	// PARAMETERS: none
+	// Returns: 
+	//		ListCursor: a cursor over the items of this list
+	//------------------------------------------------------
+	public ListCursor getCursor() { return new LinkedListCursor(0); }
+	
+	//------------------------------------------------------
+	// getCursor
+	//
+	// PURPOSE:	get a forward cursor positioned before the item at the given index
+	// PARAMETERS:
+	//		int: index of the first item the cursor will return (zero-based indexing)
+	// Returns: 
+	//		ListCursor: a cursor over the items from that index on
+	//------------------------------------------------------
+	public ListCursor getCursor( int index )
+    {
+		//bounds check
+		if ( index < 0 || index > size )
+		    ( new SimpleLinkedListOutOfBoundsError() ).throwError();
+		
+		return new LinkedListCursor(index);
+	}
+	
+	//------------------------------------------------------
+	// forEach
+	//
+	// PURPOSE:	apply the given visitor to every item, front to back
+	// PARAMETERS:
+	//		ListItemVisitor: the action to apply to each item
+	// Returns: none
+	//------------------------------------------------------
+	public void forEach( ListItemVisitor visitor )
+    {
+		Node currentNode = head;
+		while ( currentNode != null )
+		{
+			visitor.visit( currentNode.getData() );
+			currentNode = currentNode.getNext();
+		}//while
+	}
+	
 	//------------------------------------------------------
 	// toString
 	//
@@ -179,6 +241,88 @@ public class SimpleLinkedList extends ListItem
 		return returnString;
 	}
 
+	//-----------------------------------------
+	// CLASS: Inner class LinkedListCursor
+	//
+	// REMARKS: A forward cursor that walks the nodes directly and
+	//			supports removing the item it last returned
+	//-----------------------------------------
+
+	private class LinkedListCursor extends ListCursor
+    {
+		
+		private Node previousNode; //node before currentNode (null if currentNode is the head)
+		private Node currentNode;  //node last returned by next(), null if none or removed
+		private Node upcomingNode; //node next() will return
+		
+		//------------------------------------------------------
+		// LinkedListCursor Constructor
+		//
+		// PURPOSE:	Initializes this object before the node at the given index
+		// PARAMETERS:
+		//		int: index of the first node to return (zero-based indexing)
+		//------------------------------------------------------
+		public LinkedListCursor( int index )
+        {
+			previousNode = null;
+			currentNode = null;
+			upcomingNode = head;
+			for ( int ii = 0; ii < index; ii++ )
+			{
+				previousNode = upcomingNode;
+				upcomingNode = upcomingNode.getNext();
+			}//for ii
+		}
+		
+		//------------------------------------------------------
+		// hasNext (implements)
+		//
+		// PURPOSE:	checks whether there are nodes left to visit
+		//------------------------------------------------------
+		public boolean hasNext() { return upcomingNode != null; }
+		
+		//------------------------------------------------------
+		// next (implements)
+		//
+		// PURPOSE:	moves to the next node and returns its data
+		//------------------------------------------------------
+		public ListItem next()
+        {
+			if ( upcomingNode == null )
+			    ( new InvalidCursorStateError("SimpleLinkedList.LinkedListCursor.next()") ).throwError();
+			
+			//the previous node only moves forward if the current one is still in the list
+			if ( currentNode != null )
+			    previousNode = currentNode;
+			currentNode = upcomingNode;
+			upcomingNode = upcomingNode.getNext();
+			return currentNode.getData();
+		}
+		
+		//------------------------------------------------------
+		// remove (implements)
+		//
+		// PURPOSE:	unlinks the node last returned by next()
+		//------------------------------------------------------
+		public void remove()
+        {
+			if ( currentNode == null )
+			    ( new InvalidCursorStateError("SimpleLinkedList.LinkedListCursor.remove()") ).throwError();
+			
+			//unlink the current node
+			if ( previousNode == null )
+			    head = upcomingNode;
+			else
+			    previousNode.setNext( upcomingNode );
+			if ( currentNode == tail )
+			    tail = previousNode;
+			
+			currentNode = null;
+			size--;
+		}
+		
+	} //LinkedListCursor
+
 	//-----------------------------------------
 	// CLASS: Inner class Node
 	//
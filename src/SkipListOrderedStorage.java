@@ -0,0 +1,397 @@
+//-----------------------------------------
+// CLASS: SkipListOrderedStorage
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: Keeps the items of an OrderedList in an indexable skip list. Every
+//			forward link records how many items it skips over, so ordered
+//			insert, seek, getAt and removeAt all take O(log n) expected time.
+//			Items equal to each other stay in insertion order, exactly as in
+//			the other storages.
+//-----------------------------------------
+
+public class SkipListOrderedStorage extends OrderedStorage
+{
+	
+	private static final int MAX_LEVEL = 32; //enough levels for 4^32 items
+	
+	private Node head;        //sentinel node holding no item, present on every level
+	private int level;        //number of levels currently in use
+	private int size;         //number of items in this storage
+	private int randomState;  //xorshift state used to pick node levels
+	
+	//scratch arrays reused by insert/removeAt to record the path down the levels
+	private Node[] update;
+	private int[] rank;
+	
+	//------------------------------------------------------
+	// SkipListOrderedStorage Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS: None
+	// Returns: None
+	//------------------------------------------------------
+	SkipListOrderedStorage()
+	{
+		head = new Node(null, MAX_LEVEL);
+		level = 1;
+		size = 0;
+		randomState = 0x2545F491;
+		update = new Node[MAX_LEVEL];
+		rank = new int[MAX_LEVEL];
+	}
+	
+	//------------------------------------------------------
+	// insert (implements)
+	//
+	// PURPOSE:	insert item in ascending order, after any items equal to it
+	// PARAMETERS:
+	//		OrderedItem: item to insert
+	// Returns: none
+	//------------------------------------------------------
+	public void insert(OrderedItem item)
+	{
+		//find the last node on each level that is less than or equal to the item,
+		//and the rank (one-based position) of each of those nodes
+		Node node = head;
+		for ( int ii = level - 1; ii >= 0; ii-- )
+		{
+			rank[ii] = ( ii == level - 1 ) ? 0 : rank[ii+1];
+			while ( node.forward[ii] != null && node.forward[ii].item.compareTo(item) <= 0 )
+			{
+				rank[ii] += node.span[ii];
+				node = node.forward[ii];
+			}//while
+			update[ii] = node;
+		}//for ii
+		
+		//levels the list did not use yet start out at the head
+		int nodeLevel = randomLevel();
+		if ( nodeLevel > level )
+		{
+			for ( int ii = level; ii < nodeLevel; ii++ )
+			{
+				rank[ii] = 0;
+				update[ii] = head;
+				head.span[ii] = size;
+			}//for ii
+			level = nodeLevel;
+		}//if
+		
+		//link the new node in and fix the spans around it
+		Node newNode = new Node(item, nodeLevel);
+		for ( int ii = 0; ii < nodeLevel; ii++ )
+		{
+			newNode.forward[ii] = update[ii].forward[ii];
+			update[ii].forward[ii] = newNode;
+			newNode.span[ii] = update[ii].span[ii] - ( rank[0] - rank[ii] );
+			update[ii].span[ii] = ( rank[0] - rank[ii] ) + 1;
+		}//for ii
+		for ( int ii = nodeLevel; ii < level; ii++ )
+		    update[ii].span[ii]++;
+		
+		size++;
+	}
+	
+	//------------------------------------------------------
+	// getAt (implements)
+	//
+	// PURPOSE:	get item at specified index without changing the storage
+	// PARAMETERS:
+	//		int: index of item to get (zero-based indexing)
+	// Returns:
+	//		OrderedItem: the fetched item
+	//------------------------------------------------------
+	public OrderedItem getAt(int index)
+	{
+		//bounds check
+		if ( index < 0 || index >= size )
+		    ( new OrderedListOutOfBoundsError("SkipListOrderedStorage") ).throwError();
+		
+		return findByRank(index + 1).item;
+	}
+	
+	//------------------------------------------------------
+	// removeAt (implements)
+	//
+	// PURPOSE:	remove item at specified index
+	// PARAMETERS:
+	//		int: index at which to remove (zero-based indexing)
+	// Returns:
+	//		OrderedItem: the item that was removed
+	//------------------------------------------------------
+	public OrderedItem removeAt(int index)
+	{
+		//bounds check
+		if ( index < 0 || index >= size )
+		    ( new OrderedListOutOfBoundsError("SkipListOrderedStorage") ).throwError();
+		
+		//find the node just before the target on each level
+		int targetRank = index + 1;
+		int traversed = 0;
+		Node node = head;
+		for ( int ii = level - 1; ii >= 0; ii-- )
+		{
+			while ( node.forward[ii] != null && traversed + node.span[ii] < targetRank )
+			{
+				traversed += node.span[ii];
+				node = node.forward[ii];
+			}//while
+			update[ii] = node;
+		}//for ii
+		
+		//unlink the target and fix the spans that went over it
+		Node removedNode = update[0].forward[0];
+		for ( int ii = 0; ii < level; ii++ )
+		{
+			if ( update[ii].forward[ii] == removedNode )
+			{
+				update[ii].span[ii] += removedNode.span[ii] - 1;
+				update[ii].forward[ii] = removedNode.forward[ii];
+			}//if
+			else
+			    update[ii].span[ii]--;
+		}//for ii
+		
+		//drop levels that are now empty
+		while ( level > 1 && head.forward[level-1] == null )
+		    level--;
+		
+		size--;
+		return removedNode.item;
+	}
+	
+	//------------------------------------------------------
+	// getSize (implements)
+	//
+	// PURPOSE:	Returns current number of elements
+	// PARAMETERS: None
+	// Returns: Curent number of elements
+	//------------------------------------------------------
+	public int getSize() { return size; }
+	
+	//------------------------------------------------------
+	// getCursor (implements)
+	//
+	// PURPOSE:	get a forward cursor over the items in ascending order
+	// PARAMETERS: none
+	// Returns:
+	//		ListCursor: a cursor positioned before the first item
+	//------------------------------------------------------
+	public ListCursor getCursor() { return new SkipListCursor(head.forward[0], 0); }
+	
+	//------------------------------------------------------
+	// seek (implements)
+	//
+	// PURPOSE:	get a cursor positioned before the first item that is greater
+	//			than or equal to the given one
+	// PARAMETERS:
+	//		OrderedItem: the item to compare against
+	// Returns:
+	//		ListCursor: a cursor over the items from that point on
+	//------------------------------------------------------
+	public ListCursor seek(OrderedItem item)
+	{
+		//descend to the last node strictly less than the item
+		int traversed = 0;
+		Node node = head;
+		for ( int ii = level - 1; ii >= 0; ii-- )
+		{
+			while ( node.forward[ii] != null && node.forward[ii].item.compareTo(item) < 0 )
+			{
+				traversed += node.span[ii];
+				node = node.forward[ii];
+			}//while
+		}//for ii
+		
+		return new SkipListCursor(node.forward[0], traversed);
+	}
+	
+	//------------------------------------------------------
+	// forEach (overrides)
+	//
+	// PURPOSE:	apply the given visitor to every item in ascending order
+	// PARAMETERS:
+	//		ListItemVisitor: the action to apply to each item
+	// Returns: none
+	//------------------------------------------------------
+	public void forEach(ListItemVisitor visitor)
+	{
+		for ( Node node = head.forward[0]; node != null; node = node.forward[0] )
+		    visitor.visit(node.item);
+	}
+	
+	//------------------------------------------------------
+	// toString
+	//
+	// PURPOSE:	obtain a String representation of this storage
+	// PARAMETERS: none
+	// Returns: 
+	//		String: String representation of this storage
+	//------------------------------------------------------
+	public String toString()
+	{
+		String returnString = "List containing " + size + " elements:\n";
+		
+		int ii = 0;
+		for ( Node node = head.forward[0]; node != null; node = node.forward[0] )
+		{
+			returnString += "    Element " + ii + ":\t" + node.item.toString() + "\n";
+			ii++;
+		}//for node
+		
+		return returnString;
+	}
+	
+	//------------------------------------------------------
+	// findByRank
+	//
+	// PURPOSE:	walk down the levels to the node at the given one-based rank
+	// PARAMETERS:
+	//		int: rank of the node (1..size)
+	// Returns:
+	//		Node: the node at that rank
+	//------------------------------------------------------
+	private Node findByRank(int targetRank)
+	{
+		int traversed = 0;
+		Node node = head;
+		for ( int ii = level - 1; ii >= 0; ii-- )
+		{
+			while ( node.forward[ii] != null && traversed + node.span[ii] <= targetRank )
+			{
+				traversed += node.span[ii];
+				node = node.forward[ii];
+			}//while
+		}//for ii
+		
+		return node;
+	}
+	
+	//------------------------------------------------------
+	// randomLevel
+	//
+	// PURPOSE:	pick the number of levels for a new node; each extra level
+	//			is kept with probability 1/4
+	// PARAMETERS: none
+	// Returns:
+	//		int: a level between 1 and MAX_LEVEL
+	//------------------------------------------------------
+	private int randomLevel()
+	{
+		randomState ^= randomState << 13;
+		randomState ^= randomState >>> 17;
+		randomState ^= randomState << 5;
+		
+		int nodeLevel = 1;
+		int bits = randomState;
+		while ( nodeLevel < MAX_LEVEL && ( bits & 3 ) == 0 )
+		{
+			nodeLevel++;
+			bits >>>= 2;
+		}//while
+		
+		return nodeLevel;
+	}
+	
+	//-----------------------------------------
+	// CLASS: Inner class SkipListCursor
+	//
+	// REMARKS: A forward cursor along the bottom level. It tracks the rank
+	//			of the item it last returned so that remove() can unlink
+	//			that item in logarithmic time.
+	//-----------------------------------------
+
+	private class SkipListCursor extends ListCursor
+	{
+		
+		private Node upcomingNode;  //node next() will return
+		private int currentRank;    //one-based rank of the item last returned, 0 if none
+		private boolean canRemove;  //true if next() was called since the last remove()
+		
+		//------------------------------------------------------
+		// SkipListCursor Constructor
+		//
+		// PURPOSE:	Initializes this object
+		// PARAMETERS:
+		//		Node: the first node to return
+		//		int: the number of items before that node
+		//------------------------------------------------------
+		public SkipListCursor(Node firstNode, int itemsBefore)
+		{
+			upcomingNode = firstNode;
+			currentRank = itemsBefore;
+			canRemove = false;
+		}
+		
+		//------------------------------------------------------
+		// hasNext (implements)
+		//
+		// PURPOSE:	checks whether there are nodes left to visit
+		//------------------------------------------------------
+		public boolean hasNext() { return upcomingNode != null; }
+		
+		//------------------------------------------------------
+		// next (implements)
+		//
+		// PURPOSE:	moves to the next node and returns its item
+		//------------------------------------------------------
+		public ListItem next()
+		{
+			if ( upcomingNode == null )
+			    ( new InvalidCursorStateError("SkipListOrderedStorage.SkipListCursor.next()") ).throwError();
+			
+			OrderedItem item = upcomingNode.item;
+			upcomingNode = upcomingNode.forward[0];
+			currentRank++;
+			canRemove = true;
+			return item;
+		}
+		
+		//------------------------------------------------------
+		// remove (implements)
+		//
+		// PURPOSE:	removes the item last returned by next()
+		//------------------------------------------------------
+		public void remove()
+		{
+			if ( !canRemove )
+			    ( new InvalidCursorStateError("SkipListOrderedStorage.SkipListCursor.remove()") ).throwError();
+			
+			removeAt(currentRank - 1);
+			currentRank--;
+			canRemove = false;
+		}
+		
+	} //SkipListCursor
+	
+	//-----------------------------------------
+	// CLASS: Inner class Node
+	//
+	// REMARKS: A skip list node with one forward link and span per level
+	//-----------------------------------------
+
+	private static class Node
+	{
+		private final OrderedItem item; //the item held by this node (null for the head)
+		private final Node[] forward;   //next node on each level
+		private final int[] span;       //number of items each forward link skips over
+		
+		//------------------------------------------------------
+		// Node Constructor
+		//
+		// PURPOSE:	Initializes this object
+		// PARAMETERS:
+		//		OrderedItem: the item this node holds
+		//		int: number of levels for this node
+		//------------------------------------------------------
+		public Node(OrderedItem item, int nodeLevel)
+		{
+			this.item = item;
+			forward = new Node[nodeLevel];
+			span = new int[nodeLevel];
+		}
+		
+	} //Node
+
+}//SkipListOrderedStorage
@@ -0,0 +1,27 @@
+//-----------------------------------------
+// CLASS: StartBeforeHorizonRequestError
+//
+// Author: Cong Thanh Tran
+//
+// REMARKS: error thrown when a reservation in the reservation file starts
+//			before the current day of the booking horizon
+//
+//-----------------------------------------
+
+public class StartBeforeHorizonRequestError extends RequestError{
+
+	//------------------------------------------------------
+	// StartBeforeHorizonRequestError Constructor
+	//
+	// PURPOSE:	Initializes this object
+	// PARAMETERS: 
+	//		String: the request that generated the error as it appears in the reservation file
+	//		int: reservation start date
+	//		int: the current day
+	// Returns: None
+	//------------------------------------------------------
+	public StartBeforeHorizonRequestError(String request, int startDate, int currentDay) {
+		super(request, "Reservation start date: " + startDate + " is before the current day " + currentDay);		
+	}
+	
+}//StartBeforeHorizonRequestError